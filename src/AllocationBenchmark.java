@@ -0,0 +1,143 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * The AllocationBenchmark class measures the bytes allocated by the merge test of the tabulation of
+ * the QuineMcCluskey class on a level of groups in which no term merges with a term of the next
+ * group, which must allocate nothing. Pairs of terms are rejected either by their masks or by values
+ * differing in more than one position. Once the test is compiled, the bytes allocated by the thread
+ * are read before and after repacking the groups into the arrays of the kernels, and before and after
+ * comparing every term against the next group with the scalar kernel and with the fastest kernel of
+ * the runtime. The benchmark exits with status 1 if any byte was allocated or any pair was accepted.
+ */
+public class AllocationBenchmark {
+
+    /**
+     * number of variables of the terms of the level
+     */
+    private static final int LENGTH = 16;
+
+    /**
+     * number of terms of the level
+     */
+    private static final int TERMS = 1 << 12;
+
+    /**
+     * number of rounds before the measured ones, so that the test is compiled
+     */
+    private static final int WARMUP = 500;
+
+    /**
+     * number of times the level is tested by each measured round
+     */
+    private static final int REPEATS = 200;
+
+    /**
+     * @param args the seed of the random terms, optional
+     */
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 130;
+        ArrayList<Term>[] list = level(new Random(seed));
+
+        int[][] values = new int[list.length][];
+        int[][] masks = new int[list.length][];
+        int[] matches = new int[QuineMcCluskey.packGroups(list, values, masks)];
+
+        long pairs = 0;
+        for (int i = 0; i < list.length - 1; i++) {
+            pairs += (long) list[i].size() * list[i + 1].size();
+        }
+
+        MergeKernel best = MergeKernel.best();
+        String bestName = best == MergeKernel.SCALAR ? "scalar" : best.getClass().getSimpleName();
+        for (int r = 0; r < WARMUP; r++) {
+            QuineMcCluskey.packGroups(list, values, masks);
+            compare(MergeKernel.SCALAR, list, values, masks, matches);
+            compare(best, list, values, masks, matches);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        boolean failed = false;
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int r = 0; r < REPEATS; r++) {
+            QuineMcCluskey.packGroups(list, values, masks);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        System.out.printf("%-18s %d levels of %d terms, %d bytes%n", "packing", REPEATS, TERMS, allocated);
+        failed |= allocated != 0;
+
+        for (MergeKernel kernel : new MergeKernel[] {MergeKernel.SCALAR, best}) {
+            before = threads.getCurrentThreadAllocatedBytes();
+            long accepted = 0;
+            for (int r = 0; r < REPEATS; r++) {
+                accepted += compare(kernel, list, values, masks, matches);
+            }
+            allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            System.out.printf("%-18s %d rejected pairs, %d bytes, %.4f B/pair, %d accepted%n",
+                    kernel == MergeKernel.SCALAR ? "scalar" : bestName, REPEATS * pairs, allocated,
+                    allocated / (double) (REPEATS * pairs), accepted);
+            failed |= allocated != 0 || accepted != 0;
+        }
+
+        if (failed)
+            System.exit(1);
+    }
+
+    /**
+     * builds a level of random terms grouped by their number of ones, where no term merges with a
+     * term of the next group
+     * @param random the source of the terms
+     * @return array of the groups of the level
+     */
+    private static ArrayList<Term>[] level(Random random) {
+        // few distinct masks so that many pairs reach the test of their values
+        int[] kinds = {0, 0x3, 0x30, 0x300};
+
+        ArrayList<Term>[] list = new ArrayList[LENGTH + 1];
+        for (int i = 0; i < list.length; i++) {
+            list[i] = new ArrayList<>();
+        }
+        HashSet<Long> taken = new HashSet<>();
+        for (int n = 0; n < TERMS;) {
+            int mask = kinds[random.nextInt(kinds.length)];
+            int value = random.nextInt(1 << LENGTH) & ~mask;
+
+            // a term is left out if it equals or merges with a term already in the level
+            boolean merges = taken.contains(Term.pack(value, mask));
+            for (int b = 0; b < LENGTH && !merges; b++) {
+                if ((mask >>> b & 1) == 0)
+                    merges = taken.contains(Term.pack(value ^ 1 << b, mask));
+            }
+            if (merges)
+                continue;
+
+            taken.add(Term.pack(value, mask));
+            list[Integer.bitCount(value)].add(new Term(value, mask, LENGTH));
+            n++;
+        }
+        return list;
+    }
+
+    /**
+     * compares every term of the level against the next group once, as the tabulation does
+     * @param kernel the merge kernel
+     * @param list array of the groups of the level
+     * @param values array of the values of each group
+     * @param masks array of the masks of each group
+     * @param matches array receiving the positions of the merging terms
+     * @return the number of pairs accepted, which is 0 for the rejected pairs of the level
+     */
+    private static long compare(MergeKernel kernel, ArrayList<Term>[] list, int[][] values, int[][] masks, int[] matches) {
+        long accepted = 0;
+        for (int i = 0; i < list.length - 1; i++) {
+            for (int j = 0; j < list[i].size(); j++) {
+                accepted += kernel.match(values[i][j], masks[i][j], values[i + 1], masks[i + 1],
+                        list[i + 1].size(), matches);
+            }
+        }
+        return accepted;
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * The Budget class bounds the time and memory of a solve of the QuineMcCluskey class. The stages
+ * of the solve poll it while they work, and once it is exceeded they stop and settle for the best
+ * result found so far. A share of the time is kept for the cover built once the stages give up, so
+ * that the stages stop before the deadline and the solve as a whole ends by it. The memory of a solve
+ * is measured as the growth of the used heap since the budget was created, which also counts other
+ * solves running at the same time.
+ */
+public class Budget {
+
+    /**
+     * budget that is never exceeded
+     */
+    public static final Budget NONE = new Budget(0, 0);
+
+    /**
+     * number of polls between two measures of the used heap
+     */
+    private static final int MEMORY_INTERVAL = 256;
+
+    /**
+     * share of the time kept for the cover built once the stages give up
+     */
+    private static final double RESERVE = 0.25;
+
+    /**
+     * exception thrown by stages that cannot return a partial result once the budget is exceeded
+     */
+    public static class ExceededException extends RuntimeException {
+        /**
+         * version of the serialized form of the exception
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * constructor for the exception, without a stack trace since it only unwinds the stage
+         */
+        public ExceededException() {
+            super("Solve budget exceeded", null, false, false);
+        }
+    }
+
+    /**
+     * value of System.nanoTime() when the time runs out, only meaningful if timed
+     */
+    private final long deadline;
+
+    /**
+     * value of System.nanoTime() when the stages give up, leaving the reserve to the last cover
+     */
+    private final long stagesDeadline;
+
+    /**
+     * true if the budget has a deadline
+     */
+    private final boolean timed;
+
+    /**
+     * maximum growth of the used heap in bytes, 0 for no limit
+     */
+    private final long memory;
+
+    /**
+     * used heap in bytes when the budget was created
+     */
+    private final long baseline;
+
+    /**
+     * number of polls so far, counted loosely across threads
+     */
+    private int polls;
+
+    /**
+     * true once the deadline has passed
+     */
+    private volatile boolean timeUp;
+
+    /**
+     * true once the used heap has grown past the memory limit
+     */
+    private volatile boolean memoryUp;
+
+    /**
+     * constructor for a budget starting now
+     * @param timeMillis the time allowed in milliseconds, 0 for no limit
+     * @param memoryBytes the growth of the used heap allowed in bytes, 0 for no limit
+     */
+    public Budget(long timeMillis, long memoryBytes) {
+        this.timed = timeMillis > 0;
+        long now = System.nanoTime();
+        this.deadline = now + timeMillis * 1_000_000;
+        this.stagesDeadline = now + (long) (timeMillis * (1 - RESERVE) * 1_000_000);
+        this.memory = memoryBytes;
+        this.baseline = memoryBytes > 0 ? usedHeap() : 0;
+    }
+
+    /**
+     * measures the used heap
+     * @return the used heap in bytes
+     */
+    private static long usedHeap() {
+        Runtime r = Runtime.getRuntime();
+        return r.totalMemory() - r.freeMemory();
+    }
+
+    /**
+     * checks if the time of the stages or the memory of the budget has run out
+     * @return true if the budget is exceeded, else false
+     */
+    public boolean exceeded() {
+        if (timeUp || memoryUp)
+            return true;
+
+        if (timed && System.nanoTime() - stagesDeadline >= 0)
+            timeUp = true;
+        else if (memory > 0 && ++polls % MEMORY_INTERVAL == 0 && usedHeap() - baseline > memory)
+            memoryUp = true;
+        return timeUp || memoryUp;
+    }
+
+    /**
+     * checks if the deadline has passed, the time kept for the last cover included
+     * @return true if no time is left at all, else false
+     */
+    public boolean reserveExceeded() {
+        return timed && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * throws if the time of the stages or the memory of the budget has run out
+     * @throws ExceededException if the budget is exceeded
+     */
+    public void check() {
+        if (exceeded())
+            throw new ExceededException();
+    }
+
+    /**
+     * gets the time left to the stages
+     * @return the time left in milliseconds, at least 1, or 0 if the budget has no deadline
+     */
+    public long remainingMillis() {
+        if (!timed)
+            return 0;
+        return Math.max(1, (stagesDeadline - System.nanoTime()) / 1_000_000);
+    }
+
+    /**
+     * checks if the time of the stages has run out
+     * @return true if the time of the budget ran out, else false
+     */
+    public boolean isTimeUp() {
+        return timeUp;
+    }
+
+    /**
+     * checks if the used heap has grown past the memory limit
+     * @return true if the memory of the budget ran out, else false
+     */
+    public boolean isMemoryUp() {
+        return memoryUp;
+    }
+}
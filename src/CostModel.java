@@ -0,0 +1,24 @@
+/**
+ * The CostModel interface provides the cost of choosing a term in a cover, which the
+ * covering stage of the QuineMcCluskey class minimizes over the sum of every chosen term.
+ * Costs must be positive so that adding a term never makes a cover cheaper.
+ */
+public interface CostModel {
+
+    /**
+     * cost model counting the number of terms in a cover
+     */
+    CostModel TERMS = term -> 1;
+
+    /**
+     * cost model counting the number of terms in a cover, breaking ties by the number of literals
+     */
+    CostModel TERMS_THEN_LITERALS = term -> (1L << 32) + term.getNumLiterals();
+
+    /**
+     * gets the cost of choosing a term in a cover
+     * @param term the term to be weighed
+     * @return positive long value of the cost of the term
+     */
+    long cost(Term term);
+}
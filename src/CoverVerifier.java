@@ -0,0 +1,174 @@
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+
+/**
+ * The CoverVerifier class checks that solutions of the QuineMcCluskey class are equivalent to their
+ * function, that is every minterm of the on-set is covered and no other minterm is. The on-set is kept
+ * as a bitmap of the truth table with one bit per minterm, and each term of a solution is evaluated
+ * 64 minterms at a time: its lowest six positions give a pattern of bits within a word, repeated over
+ * every word its higher positions agree with. Solutions are verified in parallel, each with a bitmap of
+ * its own, which takes at most 2 MB per solution for the largest functions. The same bitmap tells
+ * whether a single term is an implicant, which lets the tabulation find the merges of a term without
+ * comparing it against a whole group.
+ */
+public class CoverVerifier {
+
+    /**
+     * maximum number of variables of a verified function
+     */
+    public static final int MAX_VARIABLES = 24;
+
+    /**
+     * bits of a word whose minterms have a one in each of the six lowest positions
+     */
+    private static final long[] LOW = {
+        0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+        0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L
+    };
+
+    /**
+     * number of variables of the function
+     */
+    private final int variables;
+
+    /**
+     * bitmap of the on-set, the bit of minterm m being bit m % 64 of word m / 64
+     */
+    private final long[] onSet;
+
+    /**
+     * constructor for the verifier of a function
+     * @param minterms the minterms of the on-set, without duplicates
+     * @param variables the number of variables of the function
+     * @throws IllegalArgumentException if the function has more than MAX_VARIABLES variables or a
+     *         minterm outside its truth table
+     */
+    public CoverVerifier(int[] minterms, int variables) {
+        if (variables > MAX_VARIABLES)
+            throw new IllegalArgumentException("Cannot verify functions of more than " + MAX_VARIABLES + " variables");
+        this.variables = variables;
+        this.onSet = new long[words(variables)];
+        for (int m : minterms) {
+            if (m < 0 || m >>> variables != 0)
+                throw new IllegalArgumentException("Minterm " + m + " outside the truth table");
+            onSet[m >>> 6] |= 1L << m;
+        }
+    }
+
+    /**
+     * computes the number of words of the bitmap of a truth table
+     * @param variables the number of variables
+     * @return the number of 64-bit words holding one bit per minterm
+     */
+    private static int words(int variables) {
+        return variables <= 6 ? 1 : 1 << (variables - 6);
+    }
+
+    /**
+     * verifies every solution in parallel
+     * @param solutions the solutions, each a list of terms in binary form of at most as many variables
+     *                  as the function, where positions above the term are zeroes
+     * @return a description of the first failing solution, else null if every solution is equivalent
+     */
+    public String verify(ArrayList<String>[] solutions) {
+        String[] failures = new String[solutions.length];
+        IntStream.range(0, solutions.length).parallel().forEach(i -> failures[i] = verify(solutions[i]));
+        for (int i = 0; i < failures.length; i++) {
+            if (failures[i] != null)
+                return "solution #" + (i + 1) + " " + failures[i];
+        }
+        return null;
+    }
+
+    /**
+     * verifies a solution
+     * @param solution the terms of the solution in binary form
+     * @return a description of the failure, else null if the solution is equivalent to the function
+     */
+    public String verify(ArrayList<String> solution) {
+        long[] cubes = new long[solution.size()];
+        for (int j = 0; j < cubes.length; j++) {
+            if (solution.get(j).length() > variables)
+                return "has term " + solution.get(j) + " of more than " + variables + " variables";
+            cubes[j] = Term.pack(solution.get(j));
+        }
+        return verify(cubes);
+    }
+
+    /**
+     * verifies a solution of packed terms
+     * @param cubes the terms of the solution packed by Term.pack()
+     * @return a description of the failure, else null if the solution is equivalent to the function
+     */
+    public String verify(long[] cubes) {
+        long[] cover = new long[onSet.length];
+        for (long cube : cubes) {
+            or(cover, (int) cube, (int) (cube >>> 32));
+        }
+
+        for (int w = 0; w < cover.length; w++) {
+            long diff = cover[w] ^ onSet[w];
+            if (diff != 0) {
+                int m = w << 6 | Long.numberOfTrailingZeros(diff);
+                return ((onSet[w] & diff) != 0 ? "misses minterm " : "covers off-set minterm ") + m;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * checks if every minterm of a term is in the on-set, a word of the bitmap at a time
+     * @param value the bits of the term, with zeroes in the positions of '-'
+     * @param mask the bits set in the positions of '-'
+     * @return true if the term is an implicant of the function, else false
+     */
+    public boolean covers(int value, int mask) {
+        long pattern = pattern(value, mask);
+        int high = mask >>> 6;
+        int base = value >>> 6;
+        int sub = 0;
+        do {
+            if ((onSet[base | sub] & pattern) != pattern)
+                return false;
+            sub = (sub - high) & high;
+        } while (sub != 0);
+        return true;
+    }
+
+    /**
+     * computes the bits of the minterms within a word that agree with the six lowest positions of a
+     * term, where the positions above a function of fewer than six variables are zeroes and so keep
+     * the lowest bits
+     * @param value the bits of the term, with zeroes in the positions of '-'
+     * @param mask the bits set in the positions of '-'
+     * @return the pattern of the term within every word it covers
+     */
+    private static long pattern(int value, int mask) {
+        long pattern = -1L;
+        for (int b = 0; b < 6; b++) {
+            if ((mask >>> b & 1) == 0)
+                pattern &= (value >>> b & 1) == 1 ? LOW[b] : ~LOW[b];
+        }
+        return pattern;
+    }
+
+    /**
+     * sets the bits of every minterm covered by a term
+     * @param cover the bitmap receiving the minterms
+     * @param value the bits of the term, with zeroes in the positions of '-'
+     * @param mask the bits set in the positions of '-'
+     */
+    private void or(long[] cover, int value, int mask) {
+        long pattern = pattern(value, mask);
+
+        // every word whose index agrees with the higher positions of the term, enumerating the
+        // subsets of the higher '-' positions
+        int high = mask >>> 6;
+        int base = value >>> 6;
+        int sub = 0;
+        do {
+            cover[base | sub] |= pattern;
+            sub = (sub - high) & high;
+        } while (sub != 0);
+    }
+}
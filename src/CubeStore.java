@@ -0,0 +1,280 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The CubeStore class interns the terms merged by the tabulation of the QuineMcCluskey class so that
+ * related functions solved in the same job share a single Term, along with its cached binary form, for
+ * each distinct term instead of keeping copies of their own. A term is keyed by its value, mask and
+ * length, so the term merging a term with one of its neighbors is found by key alone. The store only
+ * saves memory and the building of binary forms: every function still finds the merges of its own
+ * terms. The store is safe to share between threads and holds at most a fixed number of terms,
+ * evicting the oldest or the least recently used. Its counters are striped so that solver threads do
+ * not contend on them.
+ */
+public class CubeStore {
+
+    /**
+     * default maximum number of stored terms
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    /**
+     * policies choosing the term removed when the store is full
+     */
+    public enum Eviction {
+        /** the term stored first, regardless of its use */
+        FIFO,
+        /** a term not used since it last came up for eviction, approximating the least recently used */
+        LRU
+    }
+
+    /**
+     * stored term along with whether it was used since it last came up for eviction
+     */
+    private static class Entry {
+        /**
+         * the shared term
+         */
+        final Term term;
+
+        /**
+         * true if the term was used since it last came up for eviction
+         */
+        volatile boolean used;
+
+        /**
+         * constructor for a newly stored term
+         * @param term the shared term
+         */
+        Entry(Term term) {
+            this.term = term;
+        }
+    }
+
+    /**
+     * stored terms by their keys
+     */
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * keys of the stored terms in the order they came up for eviction
+     */
+    private final ConcurrentLinkedQueue<Long> order = new ConcurrentLinkedQueue<>();
+
+    /**
+     * maximum number of stored terms
+     */
+    private final int capacity;
+
+    /**
+     * policy choosing the term removed when the store is full
+     */
+    private final Eviction eviction;
+
+    /**
+     * number of stored terms, counted apart since the map only estimates its size
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * number of lookups answered by a stored term
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * number of lookups that stored a new term
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * number of terms removed to make room for others
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * constructor for a store of the default capacity evicting the least recently used terms
+     */
+    public CubeStore() {
+        this(DEFAULT_CAPACITY, Eviction.LRU);
+    }
+
+    /**
+     * constructor for a store of a fixed capacity
+     * @param capacity the maximum number of stored terms
+     * @param eviction the policy choosing the term removed when the store is full
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public CubeStore(int capacity, Eviction eviction) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        this.capacity = capacity;
+        this.eviction = eviction;
+    }
+
+    /**
+     * computes the key of a term, marking its length with the bit above its value
+     * @param value the bits of the binary form, with zeroes in the positions of '-'
+     * @param mask the bits set in the positions of '-'
+     * @param length the length of the binary form
+     * @return the key of the term
+     */
+    private static long key(int value, int mask, int length) {
+        return Term.pack(value | 1 << length, mask);
+    }
+
+    /**
+     * gets the stored term equal to a term, storing the term if there is none
+     * @param term the term
+     * @return the shared term equal to the given one
+     */
+    public Term intern(Term term) {
+        long key = key(term.getValue(), term.getMask(), term.getLength());
+        Entry e = entries.get(key);
+        if (e != null)
+            return hit(e);
+        return store(key, term);
+    }
+
+    /**
+     * gets the stored term merging two terms that differ in exactly one position, storing it if there is none
+     * @param term1 the first term grouped
+     * @param term2 the second term grouped
+     * @return the shared term equal to new Term(term1, term2)
+     */
+    public Term merge(Term term1, Term term2) {
+        // the key is computed from the bits so that a hit builds no term
+        int value = term1.getValue() & term2.getValue();
+        int mask = term1.getMask() | (term1.getValue() ^ term2.getValue());
+        long key = key(value, mask, term1.getLength());
+        Entry e = entries.get(key);
+        if (e != null)
+            return hit(e);
+        return store(key, new Term(term1, term2));
+    }
+
+    /**
+     * gets the stored term merging a term with its neighbor one position above it, storing it if there is none
+     * @param term the term with a zero in the position
+     * @param bit the bit of the position, which must not be a '-' of the term
+     * @return the shared term with a '-' in the position
+     */
+    public Term merge(Term term, int bit) {
+        int value = term.getValue();
+        int mask = term.getMask() | bit;
+        long key = key(value, mask, term.getLength());
+        Entry e = entries.get(key);
+        if (e != null)
+            return hit(e);
+        return store(key, new Term(value, mask, term.getLength()));
+    }
+
+    /**
+     * records a lookup answered by a stored term
+     * @param e the entry of the term
+     * @return the stored term
+     */
+    private Term hit(Entry e) {
+        hits.increment();
+        if (!e.used)
+            e.used = true;
+        return e.term;
+    }
+
+    /**
+     * stores a new term unless another thread stored an equal one first, evicting terms if full
+     * @param key the key of the term
+     * @param term the term
+     * @return the shared term
+     */
+    private Term store(long key, Term term) {
+        Entry e = new Entry(term);
+        Entry previous = entries.putIfAbsent(key, e);
+        if (previous != null)
+            return hit(previous);
+
+        misses.increment();
+        order.add(key);
+        if (size.incrementAndGet() > capacity)
+            evict();
+        return term;
+    }
+
+    /**
+     * removes terms until the store is within its capacity, giving used terms a second chance under LRU
+     */
+    private void evict() {
+        while (size.get() > capacity) {
+            Long key = order.poll();
+            if (key == null)
+                return;
+            Entry e = entries.get(key);
+            if (e == null)
+                continue;
+
+            // a used term goes back to the end of the queue once, like the hand of a clock
+            if (eviction == Eviction.LRU && e.used) {
+                e.used = false;
+                order.add(key);
+                continue;
+            }
+            if (entries.remove(key, e)) {
+                size.decrementAndGet();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * gets the number of stored terms
+     * @return the number of terms, at most the capacity once every store has finished
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * gets the number of lookups answered by a stored term
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * gets the number of lookups that stored a new term
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * gets the number of terms removed to make room for others
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * gets the share of lookups answered by a stored term
+     * @return the hit rate between 0 and 1, 0 if nothing was looked up
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * builds a one-line summary of the store
+     * @return the String of the size and the metrics of the store
+     */
+    @Override
+    public String toString() {
+        return size() + " cubes, " + getHits() + " hits, " + getMisses() + " misses, " + getEvictions()
+                + " evictions, hit rate " + String.format("%.3f", getHitRate());
+    }
+}
@@ -0,0 +1,72 @@
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * The DeadlineCheck class checks that a solve of the QuineMcCluskey class ends by its deadline.
+ * Random functions of 12, 14 and 16 variables, too large to be solved within the deadline, are
+ * solved with each way of generating the implicants, and the whole solve must take at most the
+ * deadline and a small margin. Each solution must still cover the function exactly.
+ */
+public class DeadlineCheck {
+
+    /**
+     * numbers of variables of the functions
+     */
+    private static final int[] VARIABLES = {12, 14, 16};
+
+    /**
+     * share of the minterms of the function in its on-set
+     */
+    private static final double DENSITY = 0.5;
+
+    /**
+     * @param args the deadline and the margin in milliseconds, then the seed of the functions, optional
+     */
+    public static void main(String[] args) {
+        long deadline = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        long margin = args.length > 1 ? Long.parseLong(args[1]) : 100;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 130;
+
+        int failures = 0;
+        for (int n : VARIABLES) {
+            int[] minterms = function(new Random(seed + n), n);
+            for (QuineMcCluskey.PrimeGeneration generation : QuineMcCluskey.PrimeGeneration.values()) {
+                QuineMcCluskey q = new QuineMcCluskey(minterms, QuineMcCluskey.Form.SOP);
+                q.setPrimeGeneration(generation);
+                q.setDeadline(deadline);
+
+                long start = System.nanoTime();
+                q.solve();
+                long millis = (System.nanoTime() - start) / 1_000_000;
+
+                String failure = new CoverVerifier(minterms, n).verify(q.getSolutions());
+                if (failure == null && millis > deadline + margin)
+                    failure = "took " + millis + " ms";
+                String name = n + " variables, " + generation;
+                if (failure != null) {
+                    failures++;
+                    System.err.println(name + ": " + failure + ", deadline " + deadline + " ms");
+                } else {
+                    System.out.println(name + ": ok, " + millis + " ms");
+                }
+            }
+        }
+        if (failures != 0)
+            System.exit(1);
+    }
+
+    /**
+     * builds a random function
+     * @param random the source of the minterms
+     * @param n the number of variables
+     * @return array of the minterms of the function in ascending order
+     */
+    private static int[] function(Random random, int n) {
+        ArrayList<Integer> minterms = new ArrayList<>();
+        for (int m = 0; m < 1 << n; m++) {
+            if (random.nextDouble() < DENSITY)
+                minterms.add(m);
+        }
+        return minterms.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
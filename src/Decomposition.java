@@ -0,0 +1,179 @@
+import java.util.*;
+
+/**
+ * The Decomposition class splits the chart of the covering stage of the QuineMcCluskey class into
+ * its connected components, where two minterms are connected if a term covers both. Components
+ * share no terms, so each is covered on its own and the minimum covers of the chart are every
+ * combination of one minimum cover per component.
+ */
+public class Decomposition {
+
+    /**
+     * rows of the chart in each component, in ascending order
+     */
+    private final ArrayList<ArrayList<Integer>> rows = new ArrayList<>();
+
+    /**
+     * terms of the chart in each component, in ascending order
+     */
+    private final ArrayList<int[]> columns = new ArrayList<>();
+
+    /**
+     * the clauses of the chart, one set of terms per minterm
+     */
+    private final BitSet[] clauses;
+
+    /**
+     * constructor for the decomposition of a chart into its connected components
+     * @param clauses array of the terms covering each minterm
+     * @param width the number of terms of the chart
+     */
+    public Decomposition(BitSet[] clauses, int width) {
+        this(clauses, width, Budget.NONE);
+    }
+
+    /**
+     * constructor for the decomposition of a chart into its connected components within a budget
+     * @param clauses array of the terms covering each minterm
+     * @param width the number of terms of the chart
+     * @param budget the budget polled for every minterm
+     * @throws Budget.ExceededException if the budget runs out before the components are found
+     */
+    public Decomposition(BitSet[] clauses, int width, Budget budget) {
+        this.clauses = clauses;
+
+        // join the terms of each clause into one set
+        int[] parent = new int[width];
+        for (int j = 0; j < width; j++) {
+            parent[j] = j;
+        }
+        for (int i = 0; i < clauses.length; i++) {
+            budget.check();
+            int first = clauses[i].nextSetBit(0);
+            for (int j = clauses[i].nextSetBit(first + 1); j >= 0; j = clauses[i].nextSetBit(j + 1)) {
+                parent[find(parent, j)] = find(parent, first);
+            }
+        }
+
+        // number the components in the order of their first minterm
+        HashMap<Integer, Integer> component = new HashMap<>();
+        for (int i = 0; i < clauses.length; i++) {
+            budget.check();
+            int root = find(parent, clauses[i].nextSetBit(0));
+            Integer c = component.get(root);
+            if (c == null) {
+                c = rows.size();
+                component.put(root, c);
+                rows.add(new ArrayList<>());
+            }
+            rows.get(c).add(i);
+        }
+
+        for (int c = 0; c < rows.size(); c++) {
+            budget.check();
+            BitSet terms = new BitSet();
+            for (int i : rows.get(c)) {
+                terms.or(clauses[i]);
+            }
+            columns.add(terms.stream().toArray());
+        }
+    }
+
+    /**
+     * finds the representative of the set of a term, halving the paths on the way
+     * @param parent array of the parent of each term
+     * @param j the term
+     * @return the representative term of the set
+     */
+    private static int find(int[] parent, int j) {
+        while (parent[j] != j) {
+            parent[j] = parent[parent[j]];
+            j = parent[j];
+        }
+        return j;
+    }
+
+    /**
+     * gets the number of components of the chart
+     * @return the number of components
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * gets the clauses of a component, numbering its terms from 0
+     * @param c the index of the component
+     * @return array of the terms covering each minterm of the component
+     */
+    public BitSet[] getClauses(int c) {
+        int[] terms = columns.get(c);
+        ArrayList<Integer> r = rows.get(c);
+
+        BitSet[] result = new BitSet[r.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new BitSet(terms.length);
+            BitSet clause = clauses[r.get(i)];
+            for (int j = clause.nextSetBit(0); j >= 0; j = clause.nextSetBit(j + 1)) {
+                result[i].set(Arrays.binarySearch(terms, j));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * gets the weights of the terms of a component, numbering its terms from 0
+     * @param c the index of the component
+     * @param weights array of the weight of each term of the chart
+     * @return array of the weight of each term of the component
+     */
+    public long[] getWeights(int c, long[] weights) {
+        int[] terms = columns.get(c);
+        long[] result = new long[terms.length];
+        for (int k = 0; k < terms.length; k++) {
+            result[k] = weights[terms[k]];
+        }
+        return result;
+    }
+
+    /**
+     * renumbers covers of a component with the terms of the chart
+     * @param c the index of the component
+     * @param covers the covers as sets of terms of the component
+     * @return the covers as sets of terms of the chart
+     */
+    public ArrayList<BitSet> toChart(int c, ArrayList<BitSet> covers) {
+        int[] terms = columns.get(c);
+        ArrayList<BitSet> result = new ArrayList<>(covers.size());
+        for (BitSet cover : covers) {
+            BitSet b = new BitSet();
+            for (int k = cover.nextSetBit(0); k >= 0; k = cover.nextSetBit(k + 1)) {
+                b.set(terms[k]);
+            }
+            result.add(b);
+        }
+        return result;
+    }
+
+    /**
+     * combines the minimum covers of each component into the minimum covers of the chart
+     * @param covers array of the minimum covers of each component, as sets of terms of the chart
+     * @return array list of every combination of one cover per component
+     */
+    public static ArrayList<BitSet> combine(ArrayList<BitSet>[] covers) {
+        ArrayList<BitSet> result = new ArrayList<>();
+        result.add(new BitSet());
+        for (int c = 0; c < covers.length; c++) {
+            ArrayList<BitSet> next = new ArrayList<>(result.size() * covers[c].size());
+            for (BitSet a : result) {
+                for (BitSet b : covers[c]) {
+                    BitSet product = (BitSet) a.clone();
+                    product.or(b);
+                    next.add(product);
+                }
+            }
+            result = next;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,312 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * The DifferentialHarness class provides a differential check of every engine configuration of the
+ * QuineMcCluskey class against the reference configuration, which tabulates every level and
+ * multiplies every clause with Petrick's method. Every four-variable function and a seeded set of
+ * random larger functions are solved by each engine, checking that every solution is logically
+ * equivalent to the function and that exact engines reach the same minimum cost. The timing of
+ * each engine is written as a JSON report.
+ */
+public class DifferentialHarness {
+
+    /**
+     * maximum number of failures printed to the standard error
+     */
+    private static final int MAX_PRINTED = 20;
+
+    /**
+     * engine configuration with the results gathered while running the corpus
+     */
+    private static class Engine {
+        /**
+         * name of the engine in the report
+         */
+        final String name;
+
+        /**
+         * configures a solver to use the engine
+         */
+        final Consumer<QuineMcCluskey> configure;
+
+        /**
+         * true if the engine must reach the minimum cost of the reference
+         */
+        final boolean exact;
+
+        /**
+         * true if the engine must find as many minimum solutions as the reference
+         */
+        final boolean all;
+
+        /**
+         * true if the engine also solves every function of the exhaustive corpus
+         */
+        final boolean exhaustive;
+
+        /**
+         * number of functions solved
+         */
+        long runs;
+
+        /**
+         * number of functions where the engine disagreed with the function or the reference
+         */
+        long failures;
+
+        /**
+         * total time spent solving in nanoseconds
+         */
+        long totalNanos;
+
+        /**
+         * longest time spent solving a single function in nanoseconds
+         */
+        long maxNanos;
+
+        /**
+         * constructor for an engine configuration
+         * @param name the name of the engine in the report
+         * @param configure configures a solver to use the engine
+         * @param exact true if the engine must reach the minimum cost of the reference
+         * @param all true if the engine must find as many minimum solutions as the reference
+         */
+        Engine(String name, Consumer<QuineMcCluskey> configure, boolean exact, boolean all) {
+            this(name, configure, exact, all, true);
+        }
+
+        /**
+         * constructor for an engine configuration that may skip the exhaustive corpus
+         * @param name the name of the engine in the report
+         * @param configure configures a solver to use the engine
+         * @param exact true if the engine must reach the minimum cost of the reference
+         * @param all true if the engine must find as many minimum solutions as the reference
+         * @param exhaustive true if the engine also solves every function of the exhaustive corpus
+         */
+        Engine(String name, Consumer<QuineMcCluskey> configure, boolean exact, boolean all, boolean exhaustive) {
+            this.name = name;
+            this.configure = configure;
+            this.exact = exact;
+            this.all = all;
+            this.exhaustive = exhaustive;
+        }
+    }
+
+    /**
+     * the reference engine, followed by every engine checked against it
+     */
+    private final ArrayList<Engine> engines = new ArrayList<>();
+
+    /**
+     * number of functions in the corpus
+     */
+    private long functions;
+
+    /**
+     * number of failures printed so far
+     */
+    private int printed;
+
+    /**
+     * constructor for the initialization of the harness with every engine configuration
+     */
+    public DifferentialHarness() {
+        engines.add(new Engine("reference", q -> q.setCovering(QuineMcCluskey.Covering.PETRICK), true, true));
+        engines.add(new Engine("parallel-petrick", q -> {
+            q.setLookupTable(false);
+            q.setSupportReduction(false);
+        }, true, true));
+        engines.add(new Engine("scalar-merge", q -> {
+            q.setLookupTable(false);
+            q.setSupportReduction(false);
+            q.setNeighborSearch(false);
+            q.setMergeKernel(MergeKernel.SCALAR);
+        }, true, true));
+        engines.add(new Engine("best-merge", q -> {
+            q.setLookupTable(false);
+            q.setSupportReduction(false);
+            q.setNeighborSearch(false);
+        }, true, true));
+        engines.add(new Engine("support-reduction", q -> q.setLookupTable(false), true, true));
+        engines.add(new Engine("lookup-table", q -> q.setLookupTable(true), true, true));
+        engines.add(new Engine("exact", q -> q.setCovering(QuineMcCluskey.Covering.EXACT), true, false));
+        // one store shared by every function, as in a batch of related functions
+        CubeStore shared = new CubeStore(1 << 12, CubeStore.Eviction.LRU);
+        engines.add(new Engine("shared-cubes", q -> {
+            q.setLookupTable(false);
+            q.setCubeStore(shared);
+        }, true, true));
+        engines.add(new Engine("implicit-primes", q -> q.setPrimeGeneration(QuineMcCluskey.PrimeGeneration.IMPLICIT), true, true));
+        engines.add(new Engine("greedy", q -> q.setCovering(QuineMcCluskey.Covering.GREEDY), false, false));
+        engines.add(new Engine("local-search", q -> q.setCovering(QuineMcCluskey.Covering.LOCAL_SEARCH), false, false));
+        // a tiny buffer forces several runs per level, and file operations are too slow for the exhaustive corpus
+        engines.add(new Engine("out-of-core", q -> {
+            q.setPrimeGeneration(QuineMcCluskey.PrimeGeneration.OUT_OF_CORE);
+            q.setSpillBuffer(4);
+        }, true, true, false));
+    }
+
+    /**
+     * runs every four-variable function and a seeded set of random functions through each engine
+     * @param args the seed, the number of random functions, the maximum number of variables of
+     *             random functions and the path of the report, each optional
+     */
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 130;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int maxVariables = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        String report = args.length > 3 ? args[3] : "differential-report.json";
+
+        DifferentialHarness harness = new DifferentialHarness();
+        harness.runExhaustive(4);
+        harness.runRandom(seed, count, maxVariables);
+
+        try {
+            harness.writeReport(report);
+        } catch (IOException e) {
+            System.err.println("Could not write report: " + e.getMessage());
+        }
+
+        long failures = 0;
+        for (Engine e : harness.engines) {
+            failures += e.failures;
+            System.out.println(e.name + ": " + e.runs + " functions, " + e.failures + " failures, "
+                    + e.totalNanos / 1_000_000 + " ms");
+        }
+        if (failures != 0)
+            System.exit(1);
+    }
+
+    /**
+     * runs every function of a number of variables through each engine
+     * @param variables the number of variables
+     */
+    void runExhaustive(int variables) {
+        int size = 1 << variables;
+        for (long f = 0; f < (1L << size); f++) {
+            boolean[] onSet = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                onSet[i] = (f >>> i & 1) == 1;
+            }
+            run(onSet, true);
+        }
+    }
+
+    /**
+     * runs seeded random functions through each engine
+     * @param seed the seed of the random functions
+     * @param count the number of random functions
+     * @param maxVariables the maximum number of variables, at least five
+     */
+    void runRandom(long seed, int count, int maxVariables) {
+        Random random = new Random(seed);
+        for (int k = 0; k < count; k++) {
+            int variables = 5 + random.nextInt(Math.max(1, maxVariables - 4));
+            double density = 0.2 + 0.6 * random.nextDouble();
+            boolean[] onSet = new boolean[1 << variables];
+            for (int i = 0; i < onSet.length; i++) {
+                onSet[i] = random.nextDouble() < density;
+            }
+            run(onSet, false);
+        }
+    }
+
+    /**
+     * solves a function with each engine and checks the solutions against the reference
+     * @param onSet the truth table of the function
+     * @param exhaustive true if the function belongs to the exhaustive corpus
+     */
+    void run(boolean[] onSet, boolean exhaustive) {
+        functions++;
+
+        int count = 0;
+        for (int i = 0; i < onSet.length; i++) {
+            if (onSet[i])
+                count++;
+        }
+        int[] minterms = new int[count];
+        int k = 0;
+        for (int i = 0; i < onSet.length; i++) {
+            if (onSet[i])
+                minterms[k++] = i;
+        }
+
+        // every solution is checked against the truth table, whose width may exceed the highest minterm
+        CoverVerifier verifier = new CoverVerifier(minterms, Integer.numberOfTrailingZeros(onSet.length));
+
+        ArrayList<String>[] reference = null;
+        for (Engine e : engines) {
+            if (exhaustive && !e.exhaustive)
+                continue;
+
+            QuineMcCluskey q = new QuineMcCluskey(minterms, QuineMcCluskey.Form.SOP);
+            e.configure.accept(q);
+
+            long start = System.nanoTime();
+            q.solve();
+            long elapsed = System.nanoTime() - start;
+
+            e.runs++;
+            e.totalNanos += elapsed;
+            e.maxNanos = Math.max(e.maxNanos, elapsed);
+
+            ArrayList<String>[] solutions = q.getSolutions();
+            if (reference == null)
+                reference = solutions;
+
+            String failure = check(verifier, solutions, reference, e);
+            if (failure != null) {
+                e.failures++;
+                if (printed++ < MAX_PRINTED)
+                    System.err.println(e.name + " " + Arrays.toString(minterms) + ": " + failure);
+            }
+        }
+    }
+
+    /**
+     * checks the solutions of an engine against the function and the reference
+     * @param verifier the verifier of the function
+     * @param solutions the solutions of the engine
+     * @param reference the solutions of the reference engine
+     * @param e the engine
+     * @return a description of the failure, else null if the solutions are correct
+     */
+    private String check(CoverVerifier verifier, ArrayList<String>[] solutions, ArrayList<String>[] reference, Engine e) {
+        if (solutions == null || solutions.length == 0)
+            return "no solution";
+
+        String failure = verifier.verify(solutions);
+        if (failure != null)
+            return failure;
+        if (e.exact && solutions[0].size() != reference[0].size())
+            return solutions[0].size() + " terms instead of " + reference[0].size();
+        if (e.all && solutions.length != reference.length)
+            return solutions.length + " solutions instead of " + reference.length;
+        return null;
+    }
+
+    /**
+     * writes the results of each engine as a JSON report
+     * @param path the path of the report
+     * @throws IOException if the report cannot be written
+     */
+    void writeReport(String path) throws IOException {
+        try (PrintWriter w = new PrintWriter(new FileWriter(path))) {
+            w.println("{");
+            w.println("  \"functions\": " + functions + ",");
+            w.println("  \"engines\": [");
+            for (int i = 0; i < engines.size(); i++) {
+                Engine e = engines.get(i);
+                w.print("    {\"name\": \"" + e.name + "\", \"runs\": " + e.runs + ", \"failures\": " + e.failures
+                        + ", \"totalNanos\": " + e.totalNanos + ", \"maxNanos\": " + e.maxNanos + "}");
+                w.println(i != engines.size() - 1 ? "," : "");
+            }
+            w.println("  ]");
+            w.println("}");
+        }
+    }
+}
@@ -0,0 +1,265 @@
+import java.util.*;
+
+/**
+ * The ExactCover class provides a branch-and-bound solver for the 0-1 covering problem
+ * left by the reduction of a prime implicant chart. Every node is bounded below by a set
+ * of pairwise disjoint clauses, each of which needs its own row in any cover, so that the
+ * search can prove a cover minimum without expanding every product. The search stops at a
+ * time limit and keeps the best cover found so far.
+ */
+public class ExactCover {
+
+    /**
+     * array of clauses, each containing the indices of the rows covering one minterm
+     */
+    private final BitSet[] clauses;
+
+    /**
+     * array of positive weights of each row
+     */
+    private final long[] weights;
+
+    /**
+     * System.nanoTime() value at which the search stops
+     */
+    private final long deadline;
+
+    /**
+     * the best cover found so far
+     */
+    private BitSet best;
+
+    /**
+     * cost of the best cover found so far
+     */
+    private long bestCost;
+
+    /**
+     * lower bound on the cost of any cover, computed at the root of the search
+     */
+    private long lowerBound;
+
+    /**
+     * true if the search stopped at the time limit before proving the best cover minimum
+     */
+    private boolean timedOut;
+
+    /**
+     * number of nodes visited by the search
+     */
+    private long nodes;
+
+    /**
+     * constructor for the initialization of the covering problem of a reduced prime implicant chart
+     * @param clauses array of sets containing the indices of the rows covering each minterm
+     * @param weights array of positive weights of each row
+     * @param timeLimit the time limit of the search in milliseconds, 0 for no limit
+     */
+    public ExactCover(BitSet[] clauses, long[] weights, long timeLimit) {
+        this.clauses = clauses;
+        this.weights = weights;
+        if (timeLimit > 0)
+            this.deadline = System.nanoTime() + timeLimit * 1_000_000L;
+        else
+            this.deadline = Long.MAX_VALUE;
+    }
+
+    /**
+     * computes a lower bound on the cost of every cover of a chart from clauses sharing no rows
+     * @param clauses array of sets containing the indices of the rows covering each minterm
+     * @param weights array of positive weights of each row
+     * @return the lower bound on the cost of a cover
+     */
+    public static long lowerBound(BitSet[] clauses, long[] weights) {
+        return new ExactCover(clauses, weights, 0).bound(new ArrayList<>(Arrays.asList(clauses)), new BitSet());
+    }
+
+    /**
+     * searches for a minimum cover, starting from a greedy cover
+     * @return the minimum cover if proven, else the best cover found before the time limit
+     */
+    public BitSet solve() {
+        best = Petrick.greedy(clauses, weights, new BitSet());
+        bestCost = cost(best);
+
+        ArrayList<BitSet> uncovered = new ArrayList<>(Arrays.asList(clauses));
+        lowerBound = bound(uncovered, new BitSet());
+
+        if (lowerBound < bestCost)
+            search(new BitSet(), 0, new BitSet(), uncovered);
+        return best;
+    }
+
+    /**
+     * visits a node of the search, branching on the rows of the clause with the fewest available rows
+     * @param chosen the rows in the partial cover
+     * @param cost the cost of the partial cover
+     * @param excluded the rows that may no longer be chosen
+     * @param uncovered the clauses not hit by the partial cover
+     */
+    private void search(BitSet chosen, long cost, BitSet excluded, ArrayList<BitSet> uncovered) {
+        nodes++;
+        if (System.nanoTime() >= deadline) {
+            timedOut = true;
+            return;
+        }
+
+        // every clause is hit, the partial cover is complete
+        if (uncovered.isEmpty()) {
+            if (cost < bestCost) {
+                best = (BitSet) chosen.clone();
+                bestCost = cost;
+            }
+            return;
+        }
+
+        // prune the node if it cannot lead to a cheaper cover
+        if (cost + bound(uncovered, excluded) >= bestCost)
+            return;
+
+        // branch on the clause with the fewest available rows
+        BitSet branch = null;
+        int size = Integer.MAX_VALUE;
+        for (int i = 0; i < uncovered.size(); i++) {
+            BitSet t = (BitSet) uncovered.get(i).clone();
+            t.andNot(excluded);
+            if (t.cardinality() < size) {
+                branch = t;
+                size = t.cardinality();
+            }
+        }
+
+        // a clause without available rows cannot be hit anymore
+        if (size == 0)
+            return;
+
+        // try the rows hitting the most uncovered clauses first
+        Integer[] rows = new Integer[size];
+        int k = 0;
+        for (int r = branch.nextSetBit(0); r >= 0; r = branch.nextSetBit(r + 1)) {
+            rows[k++] = r;
+        }
+        Arrays.sort(rows, Comparator.comparingLong((Integer r) -> -hits(r, uncovered)).thenComparingLong(r -> weights[r]));
+
+        // choose each row in turn, excluding the rows already tried in the following branches
+        BitSet nextExcluded = (BitSet) excluded.clone();
+        for (int i = 0; i < rows.length && !timedOut; i++) {
+            int r = rows[i];
+
+            ArrayList<BitSet> remaining = new ArrayList<>();
+            for (int j = 0; j < uncovered.size(); j++) {
+                if (!uncovered.get(j).get(r))
+                    remaining.add(uncovered.get(j));
+            }
+
+            chosen.set(r);
+            search(chosen, cost + weights[r], nextExcluded, remaining);
+            chosen.clear(r);
+
+            nextExcluded = (BitSet) nextExcluded.clone();
+            nextExcluded.set(r);
+        }
+    }
+
+    /**
+     * computes a lower bound on the cost of hitting the uncovered clauses from a set of pairwise disjoint clauses
+     * @param uncovered the clauses not hit by the partial cover
+     * @param excluded the rows that may no longer be chosen
+     * @return the sum of the cheapest available row of each disjoint clause
+     */
+    private long bound(ArrayList<BitSet> uncovered, BitSet excluded) {
+        // gather the available rows of each clause, copied only if some rows are excluded, smaller clauses first
+        BitSet[] available = new BitSet[uncovered.size()];
+        int[] sizes = new int[available.length];
+        Integer[] order = new Integer[available.length];
+        for (int i = 0; i < available.length; i++) {
+            BitSet t = uncovered.get(i);
+            if (t.intersects(excluded)) {
+                t = (BitSet) t.clone();
+                t.andNot(excluded);
+            }
+            available[i] = t;
+            sizes[i] = t.cardinality();
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> sizes[i]));
+
+        // a row can only hit one of the disjoint clauses, so each needs its own cheapest row
+        long sum = 0;
+        BitSet used = new BitSet();
+        for (int i : order) {
+            BitSet t = available[i];
+            if (t.isEmpty())
+                return Long.MAX_VALUE / 2;
+            if (!t.intersects(used)) {
+                long min = Long.MAX_VALUE;
+                for (int r = t.nextSetBit(0); r >= 0; r = t.nextSetBit(r + 1)) {
+                    min = Math.min(min, weights[r]);
+                }
+                sum += min;
+                used.or(t);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * counts the uncovered clauses hit by a row
+     * @param r the index of the row
+     * @param uncovered the clauses not hit by the partial cover
+     * @return the number of uncovered clauses containing the row
+     */
+    private long hits(int r, ArrayList<BitSet> uncovered) {
+        long count = 0;
+        for (int i = 0; i < uncovered.size(); i++) {
+            if (uncovered.get(i).get(r))
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * computes the cost of a cover
+     * @param cover the set of row indices
+     * @return the sum of the weights of every row in the cover
+     */
+    private long cost(BitSet cover) {
+        long sum = 0;
+        for (int r = cover.nextSetBit(0); r >= 0; r = cover.nextSetBit(r + 1)) {
+            sum += weights[r];
+        }
+        return sum;
+    }
+
+    /**
+     * checks if the best cover is proven minimum, either by completing the search or by meeting the lower bound
+     * @return true if the best cover is minimum, else false
+     */
+    public boolean isOptimal() {
+        return !timedOut || bestCost == lowerBound;
+    }
+
+    /**
+     * gets the lower bound on the cost of any cover computed at the root of the search
+     * @return the cost of the disjoint clauses of the whole chart
+     */
+    public long getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * gets the cost of the best cover found
+     * @return the sum of the weights of the best cover
+     */
+    public long getCost() {
+        return bestCost;
+    }
+
+    /**
+     * gets the number of nodes visited by the search
+     * @return the number of visited nodes
+     */
+    public long getNodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,240 @@
+import java.util.ArrayList;
+
+/**
+ * The Expression class provides the tree of a Boolean expression in more than two levels, as built
+ * by the Factoring class from the solutions of the QuineMcCluskey class. A node is a constant, a
+ * literal, or a product or a sum of other nodes, where products and sums are kept flat so that no
+ * product has a product as a child and no sum has a sum.
+ */
+public class Expression {
+
+    /**
+     * kinds of nodes of an expression
+     */
+    public enum Kind {
+        /** the constant 0 or 1 */
+        CONSTANT,
+        /** a variable or its complement */
+        LITERAL,
+        /** the product of two or more children */
+        AND,
+        /** the sum of two or more children */
+        OR
+    }
+
+    /**
+     * the constant 0
+     */
+    public static final Expression ZERO = new Expression(Kind.CONSTANT, -1, false, null);
+
+    /**
+     * the constant 1
+     */
+    public static final Expression ONE = new Expression(Kind.CONSTANT, -1, true, null);
+
+    /**
+     * kind of the node
+     */
+    private final Kind kind;
+
+    /**
+     * position of the variable of a literal starting from 'A', -1 for other nodes
+     */
+    private final int variable;
+
+    /**
+     * true if a literal is complemented or a constant is 1
+     */
+    private final boolean flag;
+
+    /**
+     * children of a product or a sum, null for other nodes
+     */
+    private final ArrayList<Expression> children;
+
+    /**
+     * constructor for a node
+     * @param kind the kind of the node
+     * @param variable the position of the variable of a literal, -1 for other nodes
+     * @param flag true if a literal is complemented or a constant is 1
+     * @param children the children of a product or a sum, null for other nodes
+     */
+    private Expression(Kind kind, int variable, boolean flag, ArrayList<Expression> children) {
+        this.kind = kind;
+        this.variable = variable;
+        this.flag = flag;
+        this.children = children;
+    }
+
+    /**
+     * creates a literal
+     * @param variable the position of the variable starting from 'A'
+     * @param complemented true for the complement of the variable
+     * @return the literal
+     */
+    public static Expression literal(int variable, boolean complemented) {
+        return new Expression(Kind.LITERAL, variable, complemented, null);
+    }
+
+    /**
+     * creates the product of expressions, dropping ones and flattening products
+     * @param factors the expressions to be multiplied
+     * @return the product, 0 if a factor is 0, 1 if there are no other factors
+     */
+    public static Expression and(ArrayList<Expression> factors) {
+        return combine(Kind.AND, factors, ONE, ZERO);
+    }
+
+    /**
+     * creates the sum of expressions, dropping zeroes and flattening sums
+     * @param terms the expressions to be added
+     * @return the sum, 1 if a term is 1, 0 if there are no other terms
+     */
+    public static Expression or(ArrayList<Expression> terms) {
+        return combine(Kind.OR, terms, ZERO, ONE);
+    }
+
+    /**
+     * creates a product or a sum of expressions
+     * @param kind AND or OR
+     * @param operands the expressions to be combined
+     * @param identity the constant left out of the result
+     * @param absorbing the constant that is the result whenever it is an operand
+     * @return the flat combination of the operands
+     */
+    private static Expression combine(Kind kind, ArrayList<Expression> operands, Expression identity,
+            Expression absorbing) {
+        ArrayList<Expression> flat = new ArrayList<>();
+        for (Expression e : operands) {
+            if (e == absorbing)
+                return absorbing;
+            if (e == identity)
+                continue;
+            if (e.kind == kind)
+                flat.addAll(e.children);
+            else
+                flat.add(e);
+        }
+        if (flat.isEmpty())
+            return identity;
+        if (flat.size() == 1)
+            return flat.get(0);
+        return new Expression(kind, -1, false, flat);
+    }
+
+    /**
+     * gets the kind of the node.
+     * @return the kind
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * gets the position of the variable of a literal.
+     * @return the position starting from 'A', -1 if the node is not a literal
+     */
+    public int getVariable() {
+        return variable;
+    }
+
+    /**
+     * checks if a literal is the complement of its variable.
+     * @return true if the literal is complemented, else false
+     */
+    public boolean isComplemented() {
+        return kind == Kind.LITERAL && flag;
+    }
+
+    /**
+     * gets the children of a product or a sum.
+     * @return array list of the children, empty for constants and literals
+     */
+    public ArrayList<Expression> getChildren() {
+        return children == null ? new ArrayList<>() : children;
+    }
+
+    /**
+     * counts the literals of the expression, each occurrence of a variable counting once
+     * @return the number of literals
+     */
+    public int getLiterals() {
+        if (kind == Kind.LITERAL)
+            return 1;
+        int count = 0;
+        for (Expression e : getChildren()) {
+            count += e.getLiterals();
+        }
+        return count;
+    }
+
+    /**
+     * builds the complement of the expression by De Morgan's laws, swapping products and sums and
+     * complementing every literal and constant
+     * @return the complemented expression with as many literals
+     */
+    public Expression complement() {
+        if (kind == Kind.CONSTANT)
+            return flag ? ZERO : ONE;
+        if (kind == Kind.LITERAL)
+            return literal(variable, !flag);
+
+        ArrayList<Expression> complemented = new ArrayList<>();
+        for (Expression e : children) {
+            complemented.add(e.complement());
+        }
+        return new Expression(kind == Kind.AND ? Kind.OR : Kind.AND, -1, false, complemented);
+    }
+
+    /**
+     * build a String of the expression with the variables entered by the user, where sums within
+     * products are parenthesized
+     * @param variables list of variables that contains corresponding variable names, null for letters
+     * @return the String of the expression
+     */
+    public String toString(String[] variables) {
+        StringBuilder r = new StringBuilder();
+        append(r, variables);
+        return r.toString();
+    }
+
+    /**
+     * build a String of the expression with a letter per variable
+     * @return the String of the expression
+     */
+    @Override
+    public String toString() {
+        return toString(null);
+    }
+
+    /**
+     * appends the expression to a StringBuilder
+     * @param r the StringBuilder receiving the expression
+     * @param variables list of variables that contains corresponding variable names, null for letters
+     */
+    private void append(StringBuilder r, String[] variables) {
+        if (kind == Kind.CONSTANT) {
+            r.append(flag ? '1' : '0');
+        } else if (kind == Kind.LITERAL) {
+            r.append(QuineMcCluskey.variable(variable, variables));
+            if (flag)
+                r.append('\'');
+        } else if (kind == Kind.AND) {
+            for (Expression e : children) {
+                if (e.kind == Kind.OR) {
+                    r.append('(');
+                    e.append(r, variables);
+                    r.append(')');
+                } else {
+                    e.append(r, variables);
+                }
+            }
+        } else {
+            for (int i = 0; i < children.size(); i++) {
+                if (i != 0)
+                    r.append(" + ");
+                children.get(i).append(r, variables);
+            }
+        }
+    }
+}
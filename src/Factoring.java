@@ -0,0 +1,332 @@
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+
+/**
+ * The Factoring class turns a solution of the QuineMcCluskey class into a multi-level expression
+ * with fewer literals, by the good factor recursion of algebraic logic synthesis. A kernel of the
+ * terms is found by dividing by the most frequent literal until no literal is shared, the terms are
+ * divided by it algebraically, and the quotient, divisor and remainder are factored in turn. A term
+ * is taken packed as its value and mask and kept as a set of literals in a long, bit 2i standing for
+ * the variable i counting from 'A' and bit 2i + 1 for its complement, so that terms of up to 32
+ * variables are divided with bit operations.
+ * Since the division is algebraic, the factored expression multiplies back to the same terms.
+ */
+public class Factoring {
+
+    /**
+     * prevents instances, every method being static
+     */
+    private Factoring() {
+    }
+
+    /**
+     * factors a sum of products in binary form, packing its terms for factor(long[], int)
+     * @param terms the products in binary form, all of the same length
+     * @return the factored expression, 0 if there are no terms
+     */
+    public static Expression factor(ArrayList<String> terms) {
+        return factor(pack(terms), terms.isEmpty() ? 0 : terms.get(0).length());
+    }
+
+    /**
+     * factors a sum of products packed by the solver
+     * @param cubes the products, each holding its mask in the upper half and its value in the lower half
+     * @param length the number of variables of the products, at most 32
+     * @return the factored expression, 0 if there are no terms
+     */
+    public static Expression factor(long[] cubes, int length) {
+        ArrayList<Long> f = new ArrayList<>(cubes.length);
+        for (long c : cubes) {
+            f.add(cube(c, length));
+        }
+        return gfactor(f);
+    }
+
+    /**
+     * counts the literals of a sum of products in binary form before it is factored
+     * @param terms the products in binary form, all of the same length
+     * @return the number of positions of the terms that are not '-'
+     */
+    public static int literals(ArrayList<String> terms) {
+        return literals(pack(terms), terms.isEmpty() ? 0 : terms.get(0).length());
+    }
+
+    /**
+     * counts the literals of a sum of packed products before it is factored
+     * @param cubes the products, each holding its mask in the upper half and its value in the lower half
+     * @param length the number of variables of the products
+     * @return the number of positions of the terms that are not '-'
+     */
+    public static int literals(long[] cubes, int length) {
+        int count = 0;
+        for (long c : cubes) {
+            count += length - Integer.bitCount((int) (c >>> 32));
+        }
+        return count;
+    }
+
+    /**
+     * packs terms in binary form
+     * @param terms the terms in binary form
+     * @return array of the terms packed by Term.pack()
+     */
+    private static long[] pack(ArrayList<String> terms) {
+        long[] cubes = new long[terms.size()];
+        for (int j = 0; j < cubes.length; j++) {
+            cubes[j] = Term.pack(terms.get(j));
+        }
+        return cubes;
+    }
+
+    /**
+     * converts a packed term to its set of literals
+     * @param packed the term, holding its mask in the upper half and its value in the lower half
+     * @param length the number of variables of the term
+     * @return the literals of the term, bit 2i for a '1' and bit 2i + 1 for a '0' at position i
+     */
+    static long cube(long packed, int length) {
+        int value = (int) packed;
+        int mask = (int) (packed >>> 32);
+        long cube = 0;
+        // position i counts from the highest bit of the term, which is the variable 'A'
+        for (int i = 0; i < length; i++) {
+            int bit = 1 << (length - 1 - i);
+            if ((mask & bit) == 0)
+                cube |= 1L << (2 * i + ((value & bit) != 0 ? 0 : 1));
+        }
+        return cube;
+    }
+
+    /**
+     * factors a sum of products given as sets of literals
+     * @param f the distinct products
+     * @return the factored expression
+     */
+    private static Expression gfactor(ArrayList<Long> f) {
+        if (f.isEmpty())
+            return Expression.ZERO;
+        if (f.size() == 1)
+            return product(f.get(0));
+
+        ArrayList<Long> kernel = kernel(f);
+        // no literal is shared, so the sum cannot be factored
+        if (kernel == null)
+            return sum(f);
+
+        ArrayList<Long> quotient = divide(f, kernel);
+        if (quotient.size() == 1)
+            return factorLiteral(f, quotient.get(0));
+
+        // divide again by the quotient made cube-free, which gives a divisor at least as large as the kernel
+        quotient = cubeFree(quotient);
+        ArrayList<Long> divisor = divide(f, quotient);
+        long common = commonCube(divisor);
+        if (common != 0)
+            return factorLiteral(f, common);
+
+        ArrayList<Long> remainder = remainder(f, quotient, divisor);
+        return plus(times(gfactor(quotient), gfactor(divisor)), gfactor(remainder));
+    }
+
+    /**
+     * factors out the literal of a cube that occurs in the most products
+     * @param f the distinct products
+     * @param cube the literals to choose from
+     * @return the factored expression, else the sum itself if no literal of the cube occurs in f
+     */
+    private static Expression factorLiteral(ArrayList<Long> f, long cube) {
+        int l = mostFrequent(f, cube, 1);
+        if (l < 0)
+            return sum(f);
+        long literal = 1L << l;
+        ArrayList<Long> divisor = new ArrayList<>();
+        divisor.add(literal);
+        ArrayList<Long> quotient = divide(f, divisor);
+
+        // the literals shared by every product of the literal are factored out with it
+        long common = commonCube(quotient);
+        ArrayList<Long> rest = new ArrayList<>();
+        for (long q : quotient) {
+            rest.add(q & ~common);
+        }
+        ArrayList<Long> remainder = remainder(f, quotient, divisor);
+        return plus(times(product(literal | common), gfactor(rest)), gfactor(remainder));
+    }
+
+    /**
+     * finds a kernel, a cube-free quotient of the sum by a cube, by dividing by the most frequent
+     * literal until no literal occurs in two products
+     * @param f the distinct products
+     * @return the kernel, else null if no literal occurs in two products
+     */
+    private static ArrayList<Long> kernel(ArrayList<Long> f) {
+        if (mostFrequent(f, -1L, 2) < 0)
+            return null;
+
+        int literal;
+        while ((literal = mostFrequent(f, -1L, 2)) >= 0) {
+            ArrayList<Long> divisor = new ArrayList<>();
+            divisor.add(1L << literal);
+            f = cubeFree(divide(f, divisor));
+        }
+        return f;
+    }
+
+    /**
+     * finds the literal of a set that occurs in the most products, the lowest one among ties
+     * @param f the products
+     * @param allowed the literals to choose from
+     * @param minimum the fewest products the literal must occur in
+     * @return the bit of the literal, else -1 if no allowed literal occurs often enough
+     */
+    private static int mostFrequent(ArrayList<Long> f, long allowed, int minimum) {
+        int[] counts = new int[64];
+        for (long cube : f) {
+            for (long c = cube & allowed; c != 0; c &= c - 1) {
+                counts[Long.numberOfTrailingZeros(c)]++;
+            }
+        }
+
+        int best = -1;
+        for (int l = 0; l < counts.length; l++) {
+            if (counts[l] >= minimum && (best < 0 || counts[l] > counts[best]))
+                best = l;
+        }
+        return best;
+    }
+
+    /**
+     * divides a sum of products algebraically by another, the quotient being the largest sum whose
+     * product with the divisor is among the products of the dividend
+     * @param f the dividend
+     * @param d the divisor, not empty
+     * @return the quotient, empty if the divisor does not divide f
+     */
+    private static ArrayList<Long> divide(ArrayList<Long> f, ArrayList<Long> d) {
+        ArrayList<Long> quotient = null;
+        for (long divisor : d) {
+            // the products containing this cube of the divisor, without it
+            LinkedHashSet<Long> partial = new LinkedHashSet<>();
+            for (long cube : f) {
+                if ((cube & divisor) == divisor)
+                    partial.add(cube & ~divisor);
+            }
+
+            if (quotient == null)
+                quotient = new ArrayList<>(partial);
+            else
+                quotient.retainAll(partial);
+            if (quotient.isEmpty())
+                break;
+        }
+        return quotient;
+    }
+
+    /**
+     * finds the products of a dividend left over by the product of a quotient and a divisor
+     * @param f the dividend
+     * @param quotient the quotient of f by the divisor
+     * @param d the divisor
+     * @return the remainder
+     */
+    private static ArrayList<Long> remainder(ArrayList<Long> f, ArrayList<Long> quotient, ArrayList<Long> d) {
+        LinkedHashSet<Long> products = new LinkedHashSet<>();
+        for (long q : quotient) {
+            for (long divisor : d) {
+                products.add(q | divisor);
+            }
+        }
+
+        ArrayList<Long> remainder = new ArrayList<>();
+        for (long cube : f) {
+            if (!products.contains(cube))
+                remainder.add(cube);
+        }
+        return remainder;
+    }
+
+    /**
+     * finds the literals shared by every product
+     * @param f the products, not empty
+     * @return the common cube, 0 if the sum is cube-free
+     */
+    private static long commonCube(ArrayList<Long> f) {
+        long common = -1L;
+        for (long cube : f) {
+            common &= cube;
+        }
+        return common;
+    }
+
+    /**
+     * removes the literals shared by every product
+     * @param f the products, not empty
+     * @return the cube-free sum
+     */
+    private static ArrayList<Long> cubeFree(ArrayList<Long> f) {
+        long common = commonCube(f);
+        ArrayList<Long> free = new ArrayList<>();
+        for (long cube : f) {
+            free.add(cube & ~common);
+        }
+        return free;
+    }
+
+    /**
+     * builds the expression of a product
+     * @param cube the literals of the product
+     * @return the product of the literals in order of their variables, 1 if there are none
+     */
+    private static Expression product(long cube) {
+        ArrayList<Expression> literals = new ArrayList<>();
+        for (long c = cube; c != 0; c &= c - 1) {
+            int l = Long.numberOfTrailingZeros(c);
+            literals.add(Expression.literal(l >>> 1, (l & 1) == 1));
+        }
+        return Expression.and(literals);
+    }
+
+    /**
+     * builds the expression of a sum of products without factoring it
+     * @param f the products
+     * @return the sum of the products
+     */
+    private static Expression sum(ArrayList<Long> f) {
+        ArrayList<Expression> products = new ArrayList<>();
+        for (long cube : f) {
+            products.add(product(cube));
+        }
+        return Expression.or(products);
+    }
+
+    /**
+     * multiplies two expressions, writing a sum after a product or a literal
+     * @param a the first factor
+     * @param b the second factor
+     * @return the product
+     */
+    private static Expression times(Expression a, Expression b) {
+        ArrayList<Expression> factors = new ArrayList<>();
+        if (a.getKind() == Expression.Kind.OR && b.getKind() != Expression.Kind.OR) {
+            factors.add(b);
+            factors.add(a);
+        } else {
+            factors.add(a);
+            factors.add(b);
+        }
+        return Expression.and(factors);
+    }
+
+    /**
+     * adds two expressions
+     * @param a the first term
+     * @param b the second term
+     * @return the sum
+     */
+    private static Expression plus(Expression a, Expression b) {
+        ArrayList<Expression> terms = new ArrayList<>();
+        terms.add(a);
+        terms.add(b);
+        return Expression.or(terms);
+    }
+}
@@ -0,0 +1,394 @@
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * The HeuristicCover class provides fast covering methods for the QuineMcCluskey class that trade
+ * proven minimality for speed. The greedy cover repeatedly adds the row hitting the most remaining
+ * clauses per weight, preferring rows of fewer literals, then drops rows made redundant by later
+ * ones. The local search runs several randomized greedy covers in parallel and improves each by
+ * removing a row and repairing the cover until no removal helps. The cost of either cover is
+ * compared with a lower bound from clauses sharing no rows, so that the gap to the minimum is known.
+ * Both poll the budget for every row they add or try to remove, and once it runs out the greedy
+ * cover hits each remaining clause by its cheapest row and the local search keeps its current cover.
+ */
+public class HeuristicCover {
+
+    /**
+     * default number of randomized starts of the local search
+     */
+    public static final int DEFAULT_STARTS = 16;
+
+    /**
+     * maximum number of passes over the rows of a cover while improving it
+     */
+    private static final int MAX_PASSES = 8;
+
+    /**
+     * spread of the random factor applied to the ratio of each row by the randomized starts
+     */
+    private static final double NOISE = 0.25;
+
+    /**
+     * array of clauses, each containing the indices of the rows covering one minterm
+     */
+    private final BitSet[] clauses;
+
+    /**
+     * array of positive weights of each row
+     */
+    private final long[] weights;
+
+    /**
+     * array of the number of literals of each row, preferring fewer literals between equal ratios
+     */
+    private final long[] literals;
+
+    /**
+     * array of the indices of the clauses hit by each row
+     */
+    private final int[][] hitBy;
+
+    /**
+     * lower bound on the cost of every cover
+     */
+    private final long lowerBound;
+
+    /**
+     * cost of the last cover returned
+     */
+    private long cost;
+
+    /**
+     * constructor for the covering problem of a reduced prime implicant chart
+     * @param clauses array of sets containing the indices of the rows covering each minterm
+     * @param weights array of positive weights of each row
+     * @param literals array of the number of literals of each row
+     */
+    public HeuristicCover(BitSet[] clauses, long[] weights, long[] literals) {
+        this.clauses = clauses;
+        this.weights = weights;
+        this.literals = literals;
+
+        // list the clauses hit by each row
+        int[] counts = new int[weights.length];
+        for (int i = 0; i < clauses.length; i++) {
+            for (int r = clauses[i].nextSetBit(0); r >= 0; r = clauses[i].nextSetBit(r + 1)) {
+                counts[r]++;
+            }
+        }
+        hitBy = new int[weights.length][];
+        for (int r = 0; r < weights.length; r++) {
+            hitBy[r] = new int[counts[r]];
+            counts[r] = 0;
+        }
+        for (int i = 0; i < clauses.length; i++) {
+            for (int r = clauses[i].nextSetBit(0); r >= 0; r = clauses[i].nextSetBit(r + 1)) {
+                hitBy[r][counts[r]++] = i;
+            }
+        }
+
+        lowerBound = ExactCover.lowerBound(clauses, weights);
+    }
+
+    /**
+     * builds the greedy cover without redundant rows
+     * @param budget the budget after which each remaining clause is hit by its cheapest row
+     * @return a set of rows hitting every clause
+     */
+    public BitSet greedy(Budget budget) {
+        BitSet cover = complete(new BitSet(), -1, null, budget);
+        removeRedundant(cover, null);
+        cost = cost(cover);
+        return cover;
+    }
+
+    /**
+     * runs the default number of randomized starts of the local search in parallel
+     * @param budget the budget after which every start returns its best cover so far
+     * @return the cheapest cover found, preferring fewer literals and then earlier starts
+     */
+    public BitSet localSearch(Budget budget) {
+        return localSearch(DEFAULT_STARTS, 0, budget);
+    }
+
+    /**
+     * runs randomized starts of the local search in parallel, the first start being the greedy cover
+     * @param starts the number of starts
+     * @param seed the seed of the first randomized start, each following start adding one
+     * @param budget the budget after which every start returns its best cover so far
+     * @return the cheapest cover found, preferring fewer literals and then earlier starts
+     */
+    public BitSet localSearch(int starts, long seed, Budget budget) {
+        BitSet[] covers = new BitSet[starts];
+        IntStream.range(0, starts).parallel().forEach(k -> {
+            covers[k] = search(k == 0 ? null : new Random(seed + k), budget);
+        });
+
+        BitSet best = covers[0];
+        for (int k = 1; k < starts; k++) {
+            long c = cost(covers[k]);
+            if (c < cost(best) || (c == cost(best) && literals(covers[k]) < literals(best)))
+                best = covers[k];
+        }
+        cost = cost(best);
+        return best;
+    }
+
+    /**
+     * builds a cover from one start and improves it by removing and repairing rows
+     * @param random the source of the random factors, null for the plain greedy cover
+     * @param budget the budget after which the best cover so far is returned
+     * @return a set of rows hitting every clause
+     */
+    private BitSet search(Random random, Budget budget) {
+        double[] noise = null;
+        if (random != null) {
+            noise = new double[weights.length];
+            for (int r = 0; r < noise.length; r++) {
+                noise[r] = 1 + NOISE * random.nextDouble();
+            }
+        }
+
+        BitSet cover = complete(new BitSet(), -1, noise, budget);
+        removeRedundant(cover, random);
+
+        // remove each row in turn and repair the cover without it, keeping cheaper covers
+        boolean improved = true;
+        for (int pass = 0; improved && pass < MAX_PASSES && !budget.exceeded(); pass++) {
+            improved = false;
+            int[] rows = cover.stream().toArray();
+            shuffle(rows, random);
+            for (int r : rows) {
+                if (budget.exceeded())
+                    return cover;
+                if (!cover.get(r))
+                    continue;
+                BitSet without = (BitSet) cover.clone();
+                without.clear(r);
+                BitSet repaired = complete(without, r, noise, budget);
+                if (repaired == null)
+                    continue;
+                removeRedundant(repaired, random);
+
+                long c = cost(repaired);
+                if (c < cost(cover) || (c == cost(cover) && literals(repaired) < literals(cover))) {
+                    cover = repaired;
+                    improved = true;
+                }
+            }
+        }
+        return cover;
+    }
+
+    /**
+     * completes a partial cover, repeatedly adding the row hitting the most remaining clauses per weight
+     * @param start the rows already chosen
+     * @param excluded a row that may not be added, -1 for none
+     * @param noise array of the random factor of the ratio of each row, null for none
+     * @param budget the budget after which each remaining clause is hit by its cheapest row
+     * @return a set of rows hitting every clause, else null if a clause is only hit by the excluded row
+     */
+    private BitSet complete(BitSet start, int excluded, double[] noise, Budget budget) {
+        BitSet chosen = (BitSet) start.clone();
+
+        // count the remaining clauses hit by each row
+        int[] hits = new int[weights.length];
+        boolean[] covered = new boolean[clauses.length];
+        int remaining = 0;
+        for (int i = 0; i < clauses.length; i++) {
+            if (clauses[i].intersects(chosen)) {
+                covered[i] = true;
+                continue;
+            }
+            remaining++;
+            for (int r = clauses[i].nextSetBit(0); r >= 0; r = clauses[i].nextSetBit(r + 1)) {
+                if (r != excluded)
+                    hits[r]++;
+            }
+        }
+
+        // queue of rows by their ratio, then fewer literals, then lower index, updated lazily
+        // since ratios only decrease: an entry whose hits are out of date is queued again when polled
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> {
+            int c = Double.compare(ratio((int) b[0], b[1], noise), ratio((int) a[0], a[1], noise));
+            if (c != 0)
+                return c;
+            c = Long.compare(literals[(int) a[0]], literals[(int) b[0]]);
+            return c != 0 ? c : Long.compare(a[0], b[0]);
+        });
+        for (int r = 0; r < hits.length; r++) {
+            if (hits[r] > 0)
+                queue.add(new long[] {r, hits[r]});
+        }
+
+        while (remaining > 0) {
+            if (budget.exceeded())
+                return finish(chosen, covered, excluded);
+            long[] top = queue.poll();
+            if (top == null)
+                return null;
+            int best = (int) top[0];
+            if (top[1] != hits[best]) {
+                if (hits[best] > 0)
+                    queue.add(new long[] {best, hits[best]});
+                continue;
+            }
+
+            // the clauses of the chosen row no longer count for the rows in them
+            chosen.set(best);
+            for (int i : hitBy[best]) {
+                if (covered[i])
+                    continue;
+                covered[i] = true;
+                remaining--;
+                for (int r = clauses[i].nextSetBit(0); r >= 0; r = clauses[i].nextSetBit(r + 1)) {
+                    if (r != excluded)
+                        hits[r]--;
+                }
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * completes a partial cover without ranking the rows, hitting each remaining clause by its
+     * cheapest row, then the one of fewer literals
+     * @param chosen the rows already chosen, modified in place
+     * @param covered array of the clauses already hit, modified in place
+     * @param excluded a row that may not be added, -1 for none
+     * @return the completed cover, else null if a clause is only hit by the excluded row
+     */
+    private BitSet finish(BitSet chosen, boolean[] covered, int excluded) {
+        for (int i = 0; i < clauses.length; i++) {
+            if (covered[i])
+                continue;
+            int best = -1;
+            for (int r = clauses[i].nextSetBit(0); r >= 0; r = clauses[i].nextSetBit(r + 1)) {
+                if (r != excluded && (best < 0 || weights[r] < weights[best]
+                        || (weights[r] == weights[best] && literals[r] < literals[best])))
+                    best = r;
+            }
+            if (best < 0)
+                return null;
+            chosen.set(best);
+            for (int j : hitBy[best]) {
+                covered[j] = true;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * computes the ratio of hits to weight of a row
+     * @param r the row
+     * @param hits the number of remaining clauses hit by the row
+     * @param noise array of the random factor of the ratio of each row, null for none
+     * @return the ratio used to choose the next row
+     */
+    private double ratio(int r, long hits, double[] noise) {
+        double ratio = (double) hits / weights[r];
+        return noise == null ? ratio : ratio * noise[r];
+    }
+
+    /**
+     * removes rows whose clauses are all hit by other rows of the cover, the costliest first
+     * @param cover the cover, modified in place
+     * @param random the source of the order between equal rows, null for the highest index first
+     */
+    private void removeRedundant(BitSet cover, Random random) {
+        int[] count = new int[clauses.length];
+        for (int r = cover.nextSetBit(0); r >= 0; r = cover.nextSetBit(r + 1)) {
+            for (int i : hitBy[r]) {
+                count[i]++;
+            }
+        }
+
+        int[] rows = cover.stream().toArray();
+        shuffle(rows, random);
+        Integer[] order = new Integer[rows.length];
+        for (int k = 0; k < rows.length; k++) {
+            order[k] = rows[k];
+        }
+        Arrays.sort(order, (a, b) -> {
+            int c = Long.compare(weights[b], weights[a]);
+            if (c != 0)
+                return c;
+            c = Long.compare(literals[b], literals[a]);
+            return c != 0 || random != null ? c : Integer.compare(b, a);
+        });
+
+        for (int r : order) {
+            boolean redundant = true;
+            for (int i : hitBy[r]) {
+                if (count[i] < 2) {
+                    redundant = false;
+                    break;
+                }
+            }
+            if (redundant) {
+                cover.clear(r);
+                for (int i : hitBy[r]) {
+                    count[i]--;
+                }
+            }
+        }
+    }
+
+    /**
+     * shuffles rows in place
+     * @param rows the rows
+     * @param random the source of the order, null to keep the order
+     */
+    private static void shuffle(int[] rows, Random random) {
+        if (random == null)
+            return;
+        for (int k = rows.length - 1; k > 0; k--) {
+            int j = random.nextInt(k + 1);
+            int t = rows[k];
+            rows[k] = rows[j];
+            rows[j] = t;
+        }
+    }
+
+    /**
+     * computes the cost of a cover
+     * @param cover the set of rows
+     * @return the sum of the weights of every row in the cover
+     */
+    private long cost(BitSet cover) {
+        long sum = 0;
+        for (int r = cover.nextSetBit(0); r >= 0; r = cover.nextSetBit(r + 1)) {
+            sum += weights[r];
+        }
+        return sum;
+    }
+
+    /**
+     * counts the literals of a cover
+     * @param cover the set of rows
+     * @return the sum of the literals of every row in the cover
+     */
+    private long literals(BitSet cover) {
+        long sum = 0;
+        for (int r = cover.nextSetBit(0); r >= 0; r = cover.nextSetBit(r + 1)) {
+            sum += literals[r];
+        }
+        return sum;
+    }
+
+    /**
+     * gets the lower bound on the cost of every cover
+     * @return the lower bound from clauses sharing no rows
+     */
+    public long getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * gets the cost of the last cover returned
+     * @return the sum of the weights of its rows
+     */
+    public long getCost() {
+        return cost;
+    }
+}
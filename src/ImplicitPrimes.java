@@ -0,0 +1,561 @@
+import java.util.*;
+
+/**
+ * The ImplicitPrimes class provides an alternative to the tabulation of the QuineMcCluskey
+ * class for generating prime implicants. The function is built as a binary decision diagram
+ * (BDD) from its minterms, and its prime implicants are computed as a zero-suppressed decision
+ * diagram (ZDD) over the literals of each variable, so that intermediate terms are never
+ * materialized. Both diagrams share nodes through unique tables and cache their operations, both
+ * kept in arrays with open addressing that compare whole keys, so that no entry is boxed and no two
+ * nodes or operations are ever mistaken for each other. The budget of the solve is polled while the
+ * diagrams are built and enumerated.
+ */
+public class ImplicitPrimes {
+
+    /**
+     * index of the terminal node for false in a BDD, or the empty family of terms in a ZDD
+     */
+    private static final int ZERO = 0;
+
+    /**
+     * index of the terminal node for true in a BDD, or the family containing only the empty term in a ZDD
+     */
+    private static final int ONE = 1;
+
+    /**
+     * operations cached in the operation cache
+     */
+    private static final int AND = 0, UNION = 1, DIFF = 2;
+
+    /**
+     * largest number of nodes of a diagram, so that node indices and their keys stay exact
+     */
+    private static final int MAX_NODES = Integer.MAX_VALUE - 8;
+
+    /**
+     * number of steps between two polls of the budget
+     */
+    private static final int POLL_INTERVAL = 1024;
+
+    /**
+     * store of decision diagram nodes where each node is identified by its index
+     */
+    private static class Nodes {
+        /**
+         * variable of each node, terminals have the largest variable
+         */
+        private int[] var = new int[1024];
+
+        /**
+         * index of the child of each node when the variable is 0, or absent from the term
+         */
+        private int[] lo = new int[1024];
+
+        /**
+         * index of the child of each node when the variable is 1, or present in the term
+         */
+        private int[] hi = new int[1024];
+
+        /**
+         * number of nodes in the store
+         */
+        private int size;
+
+        /**
+         * unique table holding the index of each node in a slot chosen by its variable and children,
+         * 0 for an empty slot since the terminal nodes are never stored
+         */
+        private int[] unique = new int[2048];
+
+        /**
+         * constructor for a store containing only the two terminal nodes
+         */
+        Nodes() {
+            var[ZERO] = Integer.MAX_VALUE;
+            var[ONE] = Integer.MAX_VALUE;
+            size = 2;
+        }
+
+        /**
+         * gets the node with the variable and children, creating it if it does not exist yet
+         * @param v the variable of the node
+         * @param l the index of the low child
+         * @param h the index of the high child
+         * @return the index of the node
+         */
+        int get(int v, int l, int h) {
+            int m = unique.length - 1;
+            int i = hash(v, l, h) & m;
+            for (int n; (n = unique[i]) != 0; i = (i + 1) & m) {
+                if (var[n] == v && lo[n] == l && hi[n] == h)
+                    return n;
+            }
+
+            // grow the arrays when full
+            if (size == var.length) {
+                if (size == MAX_NODES)
+                    throw new IllegalStateException("Too many decision diagram nodes");
+                int grown = (int) Math.min(2L * size, MAX_NODES);
+                var = Arrays.copyOf(var, grown);
+                lo = Arrays.copyOf(lo, grown);
+                hi = Arrays.copyOf(hi, grown);
+            }
+            int n = size++;
+            var[n] = v;
+            lo[n] = l;
+            hi[n] = h;
+            unique[i] = n;
+
+            // keep the table at most half full so that probes stay short
+            if (2L * (size - 2) > unique.length)
+                rehash();
+            return n;
+        }
+
+        /**
+         * doubles the unique table, placing every node again
+         */
+        private void rehash() {
+            unique = new int[unique.length * 2];
+            int m = unique.length - 1;
+            for (int n = 2; n < size; n++) {
+                int i = hash(var[n], lo[n], hi[n]) & m;
+                while (unique[i] != 0)
+                    i = (i + 1) & m;
+                unique[i] = n;
+            }
+        }
+
+        /**
+         * mixes the variable and children of a node into the hash of its slot
+         * @param v the variable of the node
+         * @param l the index of the low child
+         * @param h the index of the high child
+         * @return the hash of the node
+         */
+        private static int hash(int v, int l, int h) {
+            int x = v * 0x9E3779B9 + l * 0x85EBCA6B + h * 0xC2B2AE35;
+            return x ^ (x >>> 15);
+        }
+    }
+
+    /**
+     * cache of the results of operations on nodes, keyed exactly by the operation and both operands
+     */
+    private static class Cache {
+        /**
+         * key of the operation held by each slot
+         */
+        private long[] keys = new long[1024];
+
+        /**
+         * result of the operation held by each slot plus 1, 0 for an empty slot
+         */
+        private int[] results = new int[1024];
+
+        /**
+         * number of cached operations
+         */
+        private int size;
+
+        /**
+         * finds the slot of a key, which is either empty or holds the key
+         * @param key the key of the operation
+         * @return the index of the slot
+         */
+        private int slot(long key) {
+            int m = keys.length - 1;
+            long x = key * 0x9E3779B97F4A7C15L;
+            int i = (int) (x ^ (x >>> 32)) & m;
+            while (results[i] != 0 && keys[i] != key)
+                i = (i + 1) & m;
+            return i;
+        }
+
+        /**
+         * gets the cached result of an operation
+         * @param key the key of the operation
+         * @return the index of the resulting node, else -1 if the operation is not cached
+         */
+        int get(long key) {
+            return results[slot(key)] - 1;
+        }
+
+        /**
+         * caches the result of an operation
+         * @param key the key of the operation
+         * @param result the index of the resulting node
+         */
+        void put(long key, int result) {
+            int i = slot(key);
+            if (results[i] == 0)
+                size++;
+            keys[i] = key;
+            results[i] = result + 1;
+
+            // keep the table at most half full so that probes stay short
+            if (2L * size > keys.length) {
+                long[] oldKeys = keys;
+                int[] oldResults = results;
+                keys = new long[oldKeys.length * 2];
+                results = new int[oldKeys.length * 2];
+                for (int j = 0; j < oldKeys.length; j++) {
+                    if (oldResults[j] != 0) {
+                        int k = slot(oldKeys[j]);
+                        keys[k] = oldKeys[j];
+                        results[k] = oldResults[j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * nodes of the BDD of the function, where variable i is the i-th character of a term
+     */
+    private final Nodes bdd = new Nodes();
+
+    /**
+     * nodes of the ZDD of the prime implicants, where variable 2i is the literal 1 and 2i + 1 the literal 0 of variable i
+     */
+    private final Nodes zdd = new Nodes();
+
+    /**
+     * cache of the results of AND, union and difference operations
+     */
+    private final Cache cache = new Cache();
+
+    /**
+     * index of the ZDD of prime implicants of each BDD node plus 1, 0 if not computed yet
+     */
+    private int[] primeCache = new int[1024];
+
+    /**
+     * budget of the solve, polled while the diagrams are built and enumerated
+     */
+    private final Budget budget;
+
+    /**
+     * number of steps since the budget was last polled
+     */
+    private int steps;
+
+    /**
+     * number of variables of the function
+     */
+    private final int length;
+
+    /**
+     * index of the root of the BDD of the function
+     */
+    private final int function;
+
+    /**
+     * index of the root of the ZDD of the prime implicants, computed when first requested
+     */
+    private int primes = -1;
+
+    /**
+     * constructor for the initialization of the BDD of a function
+     * @param minterms the sorted minterms of the function, without duplicates
+     * @param length the number of variables of the function
+     */
+    public ImplicitPrimes(int[] minterms, int length) {
+        this(minterms, length, Budget.NONE);
+    }
+
+    /**
+     * constructor for the initialization of the BDD of a function within a budget
+     * @param minterms the sorted minterms of the function, without duplicates
+     * @param length the number of variables of the function
+     * @param budget the budget of the solve
+     * @throws Budget.ExceededException if the budget runs out while building the BDD
+     */
+    public ImplicitPrimes(int[] minterms, int length, Budget budget) {
+        this.length = length;
+        this.budget = budget;
+        this.function = build(minterms, 0, minterms.length, 0);
+    }
+
+    /**
+     * counts a step of a recursion, polling the budget once every POLL_INTERVAL steps
+     * @throws Budget.ExceededException if the budget has run out
+     */
+    private void poll() {
+        if (++steps == POLL_INTERVAL) {
+            steps = 0;
+            budget.check();
+        }
+    }
+
+    /**
+     * builds the BDD of a range of sorted minterms sharing the values of the variables before a level
+     * @param minterms the sorted minterms of the function
+     * @param from the index of the first minterm of the range
+     * @param to the index after the last minterm of the range
+     * @param level the variable to be decided
+     * @return the index of the BDD node of the range
+     */
+    private int build(int[] minterms, int from, int to, int level) {
+        if (from == to)
+            return ZERO;
+        if (level == length)
+            return ONE;
+        poll();
+
+        // minterms with the variable 0 come before minterms with the variable 1
+        int bit = 1 << (length - 1 - level);
+        int middle = from;
+        while (middle < to && (minterms[middle] & bit) == 0)
+            middle++;
+
+        return bddNode(level, build(minterms, from, middle, level + 1), build(minterms, middle, to, level + 1));
+    }
+
+    /**
+     * gets a reduced BDD node, skipping nodes whose children are the same
+     * @param v the variable of the node
+     * @param l the index of the child when the variable is 0
+     * @param h the index of the child when the variable is 1
+     * @return the index of the node
+     */
+    private int bddNode(int v, int l, int h) {
+        if (l == h)
+            return l;
+        return bdd.get(v, l, h);
+    }
+
+    /**
+     * gets a reduced ZDD node, skipping nodes whose high child is the empty family
+     * @param v the variable of the node
+     * @param l the index of the family of terms without the variable
+     * @param h the index of the family of terms with the variable
+     * @return the index of the node
+     */
+    private int zddNode(int v, int l, int h) {
+        if (h == ZERO)
+            return l;
+        return zdd.get(v, l, h);
+    }
+
+    /**
+     * builds the key of an operation in the operation cache, which is exact since the operation takes
+     * two bits and each index at most 31
+     * @param op the operation
+     * @param a the index of the first operand
+     * @param b the index of the second operand
+     * @return the key of the operation
+     */
+    private static long key(int op, int a, int b) {
+        return ((long) op << 62) | ((long) a << 31) | b;
+    }
+
+    /**
+     * computes the conjunction of two BDDs
+     * @param a the index of the first BDD
+     * @param b the index of the second BDD
+     * @return the index of the BDD of a AND b
+     */
+    private int and(int a, int b) {
+        if (a == ZERO || b == ZERO)
+            return ZERO;
+        if (a == ONE || a == b)
+            return b;
+        if (b == ONE)
+            return a;
+        if (a > b) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+
+        long k = key(AND, a, b);
+        int r = cache.get(k);
+        if (r >= 0)
+            return r;
+        poll();
+
+        int v = Math.min(bdd.var[a], bdd.var[b]);
+        int a0 = bdd.var[a] == v ? bdd.lo[a] : a;
+        int a1 = bdd.var[a] == v ? bdd.hi[a] : a;
+        int b0 = bdd.var[b] == v ? bdd.lo[b] : b;
+        int b1 = bdd.var[b] == v ? bdd.hi[b] : b;
+        int result = bddNode(v, and(a0, b0), and(a1, b1));
+        cache.put(k, result);
+        return result;
+    }
+
+    /**
+     * computes the union of two families of terms
+     * @param a the index of the first ZDD
+     * @param b the index of the second ZDD
+     * @return the index of the ZDD of the terms in a or b
+     */
+    private int union(int a, int b) {
+        if (a == ZERO || a == b)
+            return b;
+        if (b == ZERO)
+            return a;
+        if (a > b) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+
+        long k = key(UNION, a, b);
+        int r = cache.get(k);
+        if (r >= 0)
+            return r;
+        poll();
+
+        int result;
+        if (zdd.var[a] < zdd.var[b])
+            result = zddNode(zdd.var[a], union(zdd.lo[a], b), zdd.hi[a]);
+        else if (zdd.var[a] > zdd.var[b])
+            result = zddNode(zdd.var[b], union(a, zdd.lo[b]), zdd.hi[b]);
+        else
+            result = zddNode(zdd.var[a], union(zdd.lo[a], zdd.lo[b]), union(zdd.hi[a], zdd.hi[b]));
+        cache.put(k, result);
+        return result;
+    }
+
+    /**
+     * computes the difference of two families of terms
+     * @param a the index of the first ZDD
+     * @param b the index of the second ZDD
+     * @return the index of the ZDD of the terms in a but not in b
+     */
+    private int diff(int a, int b) {
+        if (a == ZERO || a == b)
+            return ZERO;
+        if (b == ZERO)
+            return a;
+
+        long k = key(DIFF, a, b);
+        int r = cache.get(k);
+        if (r >= 0)
+            return r;
+        poll();
+
+        int result;
+        if (zdd.var[a] < zdd.var[b])
+            result = zddNode(zdd.var[a], diff(zdd.lo[a], b), zdd.hi[a]);
+        else if (zdd.var[a] > zdd.var[b])
+            result = diff(a, zdd.lo[b]);
+        else
+            result = zddNode(zdd.var[a], diff(zdd.lo[a], zdd.lo[b]), diff(zdd.hi[a], zdd.hi[b]));
+        cache.put(k, result);
+        return result;
+    }
+
+    /**
+     * computes the prime implicants of a BDD, which are the prime implicants of the conjunction
+     * of both cofactors together with the remaining prime implicants of each cofactor and the literal
+     * @param f the index of the BDD
+     * @return the index of the ZDD of the prime implicants of f
+     */
+    private int primes(int f) {
+        if (f == ZERO)
+            return ZERO;
+        if (f == ONE)
+            return ONE;
+
+        if (f < primeCache.length && primeCache[f] != 0)
+            return primeCache[f] - 1;
+        poll();
+
+        int v = bdd.var[f];
+        int both = primes(and(bdd.lo[f], bdd.hi[f]));
+        int p0 = diff(primes(bdd.lo[f]), both);
+        int p1 = diff(primes(bdd.hi[f]), both);
+
+        // the literal 1 of the variable comes before its literal 0 in the ZDD order
+        int result = zddNode(2 * v, zddNode(2 * v + 1, both, p0), p1);
+        if (f >= primeCache.length)
+            primeCache = Arrays.copyOf(primeCache, Math.max(bdd.size, 2 * primeCache.length));
+        primeCache[f] = result + 1;
+        return result;
+    }
+
+    /**
+     * gets the ZDD of the prime implicants of the function, computing it when first requested
+     * @return the index of the root of the ZDD
+     */
+    private int getPrimes() {
+        if (primes == -1)
+            primes = primes(function);
+        return primes;
+    }
+
+    /**
+     * counts the prime implicants of the function without enumerating them
+     * @return the number of prime implicants
+     * @throws Budget.ExceededException if the budget runs out before the prime implicants are computed
+     */
+    public long count() {
+        int root = getPrimes();
+        long[] counts = new long[zdd.size];
+        Arrays.fill(counts, -1);
+        return count(root, counts);
+    }
+
+    /**
+     * counts the terms of a ZDD
+     * @param z the index of the ZDD
+     * @param counts array of the counts of each node, -1 if not counted yet
+     * @return the number of terms in the family
+     */
+    private long count(int z, long[] counts) {
+        if (z == ZERO)
+            return 0;
+        if (z == ONE)
+            return 1;
+        if (counts[z] < 0)
+            counts[z] = count(zdd.lo[z], counts) + count(zdd.hi[z], counts);
+        return counts[z];
+    }
+
+    /**
+     * enumerates the prime implicants of the function as terms
+     * @return array list of every prime implicant
+     * @throws Budget.ExceededException if the budget runs out before every prime implicant is enumerated
+     */
+    public ArrayList<Term> enumerate() {
+        ArrayList<Term> result = new ArrayList<>();
+        enumerate(getPrimes(), 0, (1 << length) - 1, result);
+        return result;
+    }
+
+    /**
+     * enumerates the terms of a ZDD, where every variable starts as '-' until one of its literals is found
+     * @param z the index of the ZDD
+     * @param value the bits of the literals 1 found so far
+     * @param mask the bits of the variables without literals found so far
+     * @param result array list where the terms are added
+     */
+    private void enumerate(int z, int value, int mask, ArrayList<Term> result) {
+        if (z == ZERO)
+            return;
+        if (z == ONE) {
+            result.add(new Term(value, mask, length));
+            poll();
+            return;
+        }
+
+        int v = zdd.var[z] / 2;
+        int bit = 1 << (length - 1 - v);
+        enumerate(zdd.lo[z], value, mask, result);
+        if (zdd.var[z] % 2 == 0)
+            enumerate(zdd.hi[z], value | bit, mask & ~bit, result);
+        else
+            enumerate(zdd.hi[z], value, mask & ~bit, result);
+    }
+
+    /**
+     * gets the number of nodes created in both diagrams
+     * @return the number of BDD and ZDD nodes
+     */
+    public int getNodes() {
+        return bdd.size + zdd.size;
+    }
+}
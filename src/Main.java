@@ -0,0 +1,149 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+
+/**
+ * The Main class provides the entry point of the program. Without arguments it opens the
+ * MainGUI window; with arguments it solves the given minterms headlessly and prints the
+ * results, so that short solves never load AWT or Swing.
+ */
+public class Main {
+
+    /**
+     * default names of the variables
+     */
+    private static final String[] VARIABLES = {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J"};
+
+    /**
+     * @param args the minterms to be solved, space or comma separated, optionally preceded by
+     *             -pos or -auto for the form of the results, -json, -pla or -binary for the format
+     *             of the results, -deadline followed by the milliseconds allowed for each solve,
+     *             -batch to solve every line of the standard input, -share to share the merged
+     *             terms between the functions of a batch, -verify to check every solution
+     *             against the truth table, or -factor to also print the solutions factored into
+     *             fewer literals; opens the GUI if empty
+     * @throws InterruptedException if interrupted while solving a batch
+     * @throws IOException if the results cannot be written
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        if (args.length == 0) {
+            // MainGUI is only loaded here, keeping AWT and Swing out of headless solves
+            MainGUI.main(args);
+            return;
+        }
+
+        QuineMcCluskey.Form form = QuineMcCluskey.Form.SOP;
+        ResultWriter.Format format = null;
+        long deadline = 0;
+        boolean batch = false;
+        boolean share = false;
+        boolean verify = false;
+        boolean factor = false;
+        StringBuilder minterms = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-pos"))
+                form = QuineMcCluskey.Form.POS;
+            else if (args[i].equals("-auto"))
+                form = QuineMcCluskey.Form.AUTO;
+            else if (args[i].equals("-json"))
+                format = ResultWriter.Format.JSON;
+            else if (args[i].equals("-pla"))
+                format = ResultWriter.Format.PLA;
+            else if (args[i].equals("-binary"))
+                format = ResultWriter.Format.BINARY;
+            else if (args[i].equals("-deadline") && i + 1 < args.length)
+                deadline = Long.parseLong(args[++i]);
+            else if (args[i].equals("-batch"))
+                batch = true;
+            else if (args[i].equals("-share"))
+                share = true;
+            else if (args[i].equals("-verify"))
+                verify = true;
+            else if (args[i].equals("-factor"))
+                factor = true;
+            else
+                minterms.append(args[i]).append(' ');
+        }
+
+        if (batch) {
+            solveBatch(form, format, deadline, share, verify, factor);
+            return;
+        }
+
+        try {
+            QuineMcCluskey s = new QuineMcCluskey(minterms.toString(), form);
+            s.setDeadline(deadline);
+            s.setVerify(verify);
+            s.solve();
+            if (format == null) {
+                System.out.print(s.printResults(VARIABLES));
+                if (factor)
+                    System.out.print(s.printFactored(VARIABLES));
+            } else {
+                ResultWriter writer = new ResultWriter(System.out);
+                writer.write(s, format);
+                writer.flush();
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * solves every line of the standard input as a function, printing the results in input order
+     * @param form the form of the results
+     * @param format the format of the results, null for the text of printResults()
+     * @param deadline the milliseconds allowed for each solve, 0 for no limit
+     * @param share true to share the merged terms between the functions
+     * @param verify true to check every solution against the truth table
+     * @param factor true to also print the factored solutions of the text results
+     * @throws InterruptedException if interrupted while solving
+     * @throws IOException if the results cannot be written
+     */
+    private static void solveBatch(QuineMcCluskey.Form form, ResultWriter.Format format, long deadline,
+            boolean share, boolean verify, boolean factor) throws InterruptedException, IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        int threads = Runtime.getRuntime().availableProcessors();
+        ResultWriter writer = new ResultWriter(System.out);
+
+        try (MinimizationJob job = new MinimizationJob(threads, 4 * threads, true, form)) {
+            job.setConfiguration(q -> {
+                q.setDeadline(deadline);
+                q.setVerify(verify);
+            });
+            if (share)
+                job.setCubeStore(new CubeStore());
+            try {
+                job.run(in.lines(), r -> {
+                    if (format != null) {
+                        // formatted results leave failed functions to the standard error
+                        if (r.getError() != null) {
+                            System.err.println("Function #" + (r.getIndex() + 1) + ": " + r.getError().getMessage());
+                            return;
+                        }
+                        try {
+                            writer.write(r.getSolver(), format);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        return;
+                    }
+
+                    System.out.println("Function #" + (r.getIndex() + 1) + ": " + r.getInput());
+                    if (r.getError() != null)
+                        System.out.println(r.getError().getMessage() + "\n");
+                    else
+                        System.out.print(r.getSolver().printResults(VARIABLES));
+                    if (r.getError() == null && factor)
+                        System.out.print(r.getSolver().printFactored(VARIABLES));
+                });
+            } catch (UncheckedIOException e) {
+                // the first failed write ends the batch with its own exception, once the job has drained
+                throw e.getCause();
+            }
+        }
+        writer.flush();
+    }
+}
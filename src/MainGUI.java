@@ -2,8 +2,10 @@
 import java.awt.Color;
 import java.awt.Image;
 import java.awt.Toolkit;
+import java.util.concurrent.ExecutionException;
 import javax.swing.ImageIcon;
 import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
 
 /**
  * The MainGUI class provides a GUI using JFrame, Swing, and AWT class methods
@@ -17,6 +19,16 @@ import javax.swing.JOptionPane;
 */
 public class MainGUI extends javax.swing.JFrame {
 
+    /**
+     * solutions shown on the Results list, formatted only when shown
+     */
+    private final SolutionListModel solutions = new SolutionListModel();
+
+    /**
+     * background task of the solve in progress, null if there is none
+     */
+    private SwingWorker<Void, Void> worker;
+
     /**
      * Creates new form MainGUI
      */
@@ -42,7 +54,7 @@ public class MainGUI extends javax.swing.JFrame {
         txtVariables = new javax.swing.JTextField();
         txtMinterms = new javax.swing.JTextField();
         jScrollPane1 = new javax.swing.JScrollPane();
-        txaSolution = new javax.swing.JTextArea();
+        lstSolution = new javax.swing.JList<>();
         cbVariables = new javax.swing.JCheckBox();
         lblVarSubs = new javax.swing.JLabel();
         lblMinSubs = new javax.swing.JLabel();
@@ -93,14 +105,11 @@ public class MainGUI extends javax.swing.JFrame {
         getContentPane().add(txtMinterms);
         txtMinterms.setBounds(140, 92, 280, 30);
 
-        txaSolution.setEditable(false);
-        txaSolution.setColumns(20);
-        txaSolution.setFont(new java.awt.Font("Gotham", 0, 12)); // NOI18N
-        txaSolution.setLineWrap(true);
-        txaSolution.setRows(5);
-        txaSolution.setCursor(new java.awt.Cursor(java.awt.Cursor.TEXT_CURSOR));
-        txaSolution.setName("txaSolution"); // NOI18N
-        jScrollPane1.setViewportView(txaSolution);
+        lstSolution.setFont(new java.awt.Font("Gotham", 0, 12)); // NOI18N
+        lstSolution.setModel(solutions);
+        lstSolution.setSelectionMode(javax.swing.ListSelectionModel.SINGLE_SELECTION);
+        lstSolution.setName("lstSolution"); // NOI18N
+        jScrollPane1.setViewportView(lstSolution);
 
         getContentPane().add(jScrollPane1);
         jScrollPane1.setBounds(140, 260, 280, 80);
@@ -200,12 +209,15 @@ public class MainGUI extends javax.swing.JFrame {
      * This method implements the event when the "Solve" button is clicked.
      * The text entered by the user on the Minterms text field and optionally
      * on the Variables text field is read. The solve() method from the QuineMcCluskey class
-     * solves the entered minterms, and printResults() would print the solutions on the Results
-     * text area with respect to variables.
+     * solves the entered minterms on a background thread, and the solutions are shown on the
+     * Results list with respect to variables once the solve ends.
      * 
      */
     private void btnSolveMouseClicked(java.awt.event.MouseEvent evt) {//GEN-FIRST:event_btnSolveMouseClicked
 
+        // a disabled button still receives clicks, so a solve in progress is left to finish
+        if (worker != null)
+            return;
       
         String minterms = txtMinterms.getText();
         boolean mintermsValid = false;
@@ -227,13 +239,62 @@ public class MainGUI extends javax.swing.JFrame {
         }
         
         String variables = txtVariables.getText();
-        if (!minterms.isBlank()){
-            QuineMcCluskey s = new QuineMcCluskey(minterms);
-            s.solve();
-            if (mintermsValid && minterms.matches("[\\d,\\s]+"))
-                txaSolution.setText(s.printResults(convertVariables(variables)));
+        if (!minterms.isBlank() && mintermsValid && minterms.matches("[\\d,\\s]+")){
+            try {
+                QuineMcCluskey s = new QuineMcCluskey(minterms);
+                solve(s, convertVariables(variables));
+            } catch (IllegalArgumentException e) {
+                JOptionPane.showMessageDialog(null, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
         }
     }//GEN-LAST:event_btnSolveMouseClicked
+
+    /**
+     * solves the minterms on a background thread so that the window stays responsive, then shows the
+     * solutions on the Results list, which formats only the rows in view however many there are
+     * @param s the QuineMcCluskey object of the entered minterms
+     * @param variables the names of the variables
+     */
+    private void solve(QuineMcCluskey s, String[] variables) {
+        solutions.reset(s, variables);
+        lstSolution.setPrototypeCellValue(null);
+        btnSolve.setEnabled(false);
+
+        worker = new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                s.solve();
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                if (worker == this) {
+                    worker = null;
+                    btnSolve.setEnabled(true);
+                }
+                if (isCancelled())
+                    return;
+                try {
+                    get();
+
+                    // size every cell from the longest solution so that the list never measures all of
+                    // them, scrolling sideways to whatever does not fit
+                    int n = s.getNumSolutions();
+                    if (n > 0) {
+                        String longest = s.printSolution(s.getLongestSolution(variables), variables);
+                        lstSolution.setPrototypeCellValue(n > 1 ? "#" + n + ": " + longest : longest);
+                    }
+                    solutions.append(n);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(null, e.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
     /**
      * This method implements the event when the "Clear" button is clicked.
      * It resets the input and output areas of the program to blank or default for 
@@ -245,7 +306,14 @@ public class MainGUI extends javax.swing.JFrame {
         txtVariables.setText("A, B, C, D, E, F, G, H, I, J");
         cbVariables.setSelected(false);
         txtVariables.setEnabled(false);
-        txaSolution.setText("");
+        // the solve in progress keeps running, but its solutions are no longer shown
+        if (worker != null) {
+            worker.cancel(false);
+            worker = null;
+            btnSolve.setEnabled(true);
+        }
+        solutions.reset(null, null);
+        lstSolution.setPrototypeCellValue(null);
         
         lblVarSubs.setForeground(new Color(102,102,102));
         lblVarSubs.setText("default variables used*");
@@ -384,7 +452,7 @@ public class MainGUI extends javax.swing.JFrame {
     private javax.swing.JLabel lblTitle;
     private javax.swing.JLabel lblVarSubs;
     private javax.swing.JLabel lblVariables;
-    private javax.swing.JTextArea txaSolution;
+    private javax.swing.JList<String> lstSolution;
     private javax.swing.JTextField txtMinterms;
     private javax.swing.JTextField txtVariables;
     // End of variables declaration//GEN-END:variables
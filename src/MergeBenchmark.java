@@ -0,0 +1,139 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The MergeBenchmark class compares the scalar merge kernel with the fastest kernel of the runtime,
+ * first on random groups of terms of several sizes and then on whole tabulations of random functions.
+ * Each measure alternates both kernels after a warm-up so that the JIT compiles them alike.
+ */
+public class MergeBenchmark {
+
+    /**
+     * number of timed rounds of each measure
+     */
+    private static final int ROUNDS = 15;
+
+    /**
+     * number of pairs tested by each round of a measure on groups, repeating small groups
+     */
+    private static final long PAIRS = 1 << 22;
+
+    /**
+     * @param args the seed of the random terms and functions, optional
+     */
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 130;
+        MergeKernel best = MergeKernel.best();
+        System.out.println("kernel " + (best == MergeKernel.SCALAR ? "scalar" : best.getClass().getSimpleName()));
+
+        Random random = new Random(seed);
+        for (int size = 16; size <= 4096; size *= 4) {
+            int[] values = new int[size];
+            int[] masks = new int[size];
+            for (int k = 0; k < size; k++) {
+                // few distinct masks so that many pairs reach the test of their values
+                masks[k] = random.nextInt(4) << 2;
+                values[k] = random.nextInt(1 << 14) & ~masks[k];
+            }
+            int repeats = (int) Math.max(1, PAIRS / ((long) size * size));
+            long[] scalar = new long[ROUNDS];
+            long[] vector = new long[ROUNDS];
+            for (int r = -ROUNDS; r < ROUNDS; r++) {
+                long s = group(MergeKernel.SCALAR, values, masks, repeats);
+                long v = group(best, values, masks, repeats);
+                if (r >= 0) {
+                    scalar[r] = s;
+                    vector[r] = v;
+                }
+            }
+            print("group of " + size, scalar, vector, (long) repeats * size * size);
+        }
+
+        for (int variables = 10; variables <= 12; variables++) {
+            boolean[] onSet = new boolean[1 << variables];
+            int count = 0;
+            for (int i = 0; i < onSet.length; i++) {
+                onSet[i] = random.nextDouble() < 0.6;
+                if (onSet[i])
+                    count++;
+            }
+            int[] minterms = new int[count];
+            count = 0;
+            for (int i = 0; i < onSet.length; i++) {
+                if (onSet[i])
+                    minterms[count++] = i;
+            }
+
+            long[] scalar = new long[3];
+            long[] vector = new long[3];
+            for (int r = -1; r < 3; r++) {
+                long s = tabulate(MergeKernel.SCALAR, minterms);
+                long v = tabulate(best, minterms);
+                if (r >= 0) {
+                    scalar[r] = s;
+                    vector[r] = v;
+                }
+            }
+            print(variables + " variables", scalar, vector, 1);
+        }
+    }
+
+    /**
+     * tests every term of a group against the whole group with a kernel
+     * @param kernel the merge kernel
+     * @param values array of the values of the terms
+     * @param masks array of the masks of the terms
+     * @param repeats the number of times the group is tested
+     * @return the elapsed time in nanoseconds
+     */
+    private static long group(MergeKernel kernel, int[] values, int[] masks, int repeats) {
+        int[] matches = new int[values.length];
+        long found = 0;
+        long start = System.nanoTime();
+        for (int r = 0; r < repeats; r++) {
+            for (int j = 0; j < values.length; j++) {
+                found += kernel.match(values[j], masks[j], values, masks, values.length, matches);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        // use the result so that the loop is not removed
+        if (found < 0)
+            System.out.println(found);
+        return elapsed;
+    }
+
+    /**
+     * generates the prime implicants of a function with a kernel instead of the neighbor search,
+     * covering them greedily
+     * @param kernel the merge kernel
+     * @param minterms the minterms of the function
+     * @return the time spent generating the implicants in nanoseconds
+     */
+    private static long tabulate(MergeKernel kernel, int[] minterms) {
+        QuineMcCluskey q = new QuineMcCluskey(minterms, QuineMcCluskey.Form.SOP);
+        q.setSupportReduction(false);
+        q.setCovering(QuineMcCluskey.Covering.GREEDY);
+        q.setNeighborSearch(false);
+        q.setMergeKernel(kernel);
+        q.solve();
+        return q.getStats().getPrimeNanos();
+    }
+
+    /**
+     * prints the median time of both kernels and the speedup of the fastest kernel
+     * @param name the name of the measure
+     * @param scalar array of the times of the scalar kernel in nanoseconds
+     * @param vector array of the times of the fastest kernel in nanoseconds
+     * @param pairs the number of pairs tested by each round, 1 to print whole times
+     */
+    private static void print(String name, long[] scalar, long[] vector, long pairs) {
+        Arrays.sort(scalar);
+        Arrays.sort(vector);
+        double s = scalar[scalar.length / 2] / (double) pairs;
+        double v = vector[vector.length / 2] / (double) pairs;
+        String unit = pairs == 1 ? "ms" : "ns/pair";
+        double scale = pairs == 1 ? 1e-6 : 1;
+        System.out.printf("%-16s scalar %8.3f %s  best %8.3f %s  speedup %5.2fx%n", name, s * scale, unit,
+                v * scale, unit, s / v);
+    }
+}
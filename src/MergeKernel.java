@@ -0,0 +1,69 @@
+/**
+ * The MergeKernel interface provides the merge test of the tabulation of the QuineMcCluskey class,
+ * which compares one term against every term of the next group at once. The terms of the group are
+ * packed into arrays of values and masks, and two terms merge when their masks are equal and their
+ * values differ in exactly one position.
+ */
+public interface MergeKernel {
+
+    /**
+     * kernel comparing one pair of terms at a time
+     */
+    MergeKernel SCALAR = (value, mask, values, masks, count, matches) -> {
+        int n = 0;
+        for (int k = 0; k < count; k++) {
+            int x = value ^ values[k];
+            // a single differing position leaves exactly one bit in x
+            if (masks[k] == mask && x != 0 && (x & (x - 1)) == 0)
+                matches[n++] = k;
+        }
+        return n;
+    };
+
+    /**
+     * finds the terms of a group that merge with a term
+     * @param value the bits of the term, with zeroes in the positions of '-'
+     * @param mask the bits set in the positions of '-' of the term
+     * @param values array of the values of the terms of the group
+     * @param masks array of the masks of the terms of the group
+     * @param count the number of terms of the group
+     * @param matches array receiving the positions of the merging terms, holding at least count ints
+     * @return the number of merging terms, whose positions fill the start of matches in ascending order
+     */
+    int match(int value, int mask, int[] values, int[] masks, int count, int[] matches);
+
+    /**
+     * gets the fastest kernel of the runtime, the vectorized kernel when the jdk.incubator.vector
+     * module is added, else the scalar kernel
+     * @return the kernel
+     */
+    static MergeKernel best() {
+        return Holder.BEST;
+    }
+
+    /**
+     * holder of the fastest kernel, loading the vectorized kernel reflectively on first use so that
+     * runtimes without the incubator module fall back to the scalar kernel
+     */
+    class Holder {
+        /**
+         * the fastest kernel of the runtime
+         */
+        static final MergeKernel BEST = load();
+
+        /**
+         * loads the vectorized kernel, which is compiled apart with the incubator module, only when the
+         * module is added so that runtimes without it never try to load and verify the class
+         * @return the vectorized kernel, else the scalar kernel if its module or its class is missing
+         */
+        private static MergeKernel load() {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+                return SCALAR;
+            try {
+                return (MergeKernel) Class.forName("VectorMergeKernel").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return SCALAR;
+            }
+        }
+    }
+}
@@ -0,0 +1,315 @@
+import java.util.Iterator;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * The MinimizationJob class provides a batch API over the QuineMcCluskey class. Functions are read
+ * from a stream of minterm Strings, parsed and delivered on threads meant for I/O, and solved on
+ * a fixed pool of platform threads. At most a fixed number of functions are in flight at once,
+ * so reading the stream blocks while the solvers catch up, and results are delivered one at a
+ * time either in input order or as they complete.
+ */
+public class MinimizationJob implements AutoCloseable {
+
+    /**
+     * result of a single function of the job
+     */
+    public static class Result {
+        /**
+         * position of the function in the input stream
+         */
+        private final long index;
+
+        /**
+         * minterms of the function as read from the input stream
+         */
+        private final String input;
+
+        /**
+         * solver holding the solutions, null if the function failed
+         */
+        private final QuineMcCluskey solver;
+
+        /**
+         * exception thrown while parsing or solving the function, null if it succeeded
+         */
+        private final RuntimeException error;
+
+        /**
+         * constructor for the result of a function
+         * @param index the position of the function in the input stream
+         * @param input the minterms of the function
+         * @param solver the solver holding the solutions, null if the function failed
+         * @param error the exception thrown by the function, null if it succeeded
+         */
+        Result(long index, String input, QuineMcCluskey solver, RuntimeException error) {
+            this.index = index;
+            this.input = input;
+            this.solver = solver;
+            this.error = error;
+        }
+
+        /**
+         * gets the position of the function in the input stream.
+         * @return the index of the function, starting from 0
+         */
+        public long getIndex() {
+            return index;
+        }
+
+        /**
+         * gets the minterms of the function as read from the input stream.
+         * @return the input String
+         */
+        public String getInput() {
+            return input;
+        }
+
+        /**
+         * gets the solver holding the solutions of the function.
+         * @return the solved QuineMcCluskey object, null if the function failed
+         */
+        public QuineMcCluskey getSolver() {
+            return solver;
+        }
+
+        /**
+         * gets the exception thrown while parsing or solving the function.
+         * @return the exception, null if the function succeeded
+         */
+        public RuntimeException getError() {
+            return error;
+        }
+    }
+
+    /**
+     * executor parsing inputs and delivering results, using virtual threads when the runtime has them
+     */
+    private final ExecutorService io;
+
+    /**
+     * fixed pool of platform threads solving functions
+     */
+    private final ExecutorService cpu;
+
+    /**
+     * permits for the functions in flight, released once their result is delivered
+     */
+    private final Semaphore inFlight;
+
+    /**
+     * maximum number of functions read but not yet delivered
+     */
+    private final int capacity;
+
+    /**
+     * true if results are delivered in input order, else as they complete
+     */
+    private final boolean ordered;
+
+    /**
+     * form of the resulting expressions
+     */
+    private final QuineMcCluskey.Form form;
+
+    /**
+     * configures each solver before solving, such as its covering method
+     */
+    private Consumer<QuineMcCluskey> configure = q -> { };
+
+    /**
+     * store of merged terms shared by every function of the job, null if the terms are not shared
+     */
+    private CubeStore cubeStore;
+
+    /**
+     * results completed out of order, waiting for the results before them
+     */
+    private final TreeMap<Long, Result> pending = new TreeMap<>();
+
+    /**
+     * index of the next result to be delivered in input order
+     */
+    private long next;
+
+    /**
+     * first exception thrown by the consumer of the results, null if every result was accepted
+     */
+    private volatile Throwable failure;
+
+    /**
+     * constructor for a job solving functions on a number of platform threads
+     * @param threads the number of platform threads solving functions
+     * @param capacity the maximum number of functions read but not yet delivered
+     * @param ordered true to deliver results in input order, false to deliver them as they complete
+     * @param form the form of the resulting expressions
+     */
+    public MinimizationJob(int threads, int capacity, boolean ordered, QuineMcCluskey.Form form) {
+        this.io = newIoExecutor();
+        this.cpu = Executors.newFixedThreadPool(threads);
+        this.inFlight = new Semaphore(capacity);
+        this.capacity = capacity;
+        this.ordered = ordered;
+        this.form = form;
+    }
+
+    /**
+     * creates an executor with a virtual thread per task when the runtime supports it, else a cached thread pool
+     * @return the executor for I/O-bound work
+     */
+    private static ExecutorService newIoExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * sets the configuration applied to each solver before solving
+     * @param configure configures a solver, such as setting its covering method
+     */
+    public void setConfiguration(Consumer<QuineMcCluskey> configure) {
+        this.configure = configure;
+    }
+
+    /**
+     * sets the store of merged terms shared by every function of the job, which saves memory when
+     * the functions differ by a few minterms and so merge into mostly the same terms
+     * @param cubeStore the shared store, null to build the terms of each function apart
+     */
+    public void setCubeStore(CubeStore cubeStore) {
+        this.cubeStore = cubeStore;
+    }
+
+    /**
+     * gets the store of merged terms shared by every function of the job.
+     * @return the shared store, holding the hit rate of the job, null if the terms are not shared
+     */
+    public CubeStore getCubeStore() {
+        return cubeStore;
+    }
+
+    /**
+     * solves every function of a stream, blocking until every result is delivered
+     * @param inputs the stream of minterm Strings
+     * @param results receives every result, one at a time
+     * @return the number of functions solved
+     * @throws InterruptedException if interrupted while waiting for capacity
+     * @throws RuntimeException the first exception thrown by the consumer, once every function read is done
+     */
+    public long run(Stream<String> inputs, Consumer<Result> results) throws InterruptedException {
+        return run(inputs.iterator(), results);
+    }
+
+    /**
+     * solves every function of an iterator, blocking until every result is delivered
+     * @param inputs the iterator of minterm Strings
+     * @param results receives every result, one at a time
+     * @return the number of functions solved
+     * @throws InterruptedException if interrupted while waiting for capacity
+     * @throws RuntimeException the first exception thrown by the consumer, once every function read is done
+     */
+    public long run(Iterator<String> inputs, Consumer<Result> results) throws InterruptedException {
+        long count = 0;
+        synchronized (pending) {
+            next = 0;
+            failure = null;
+        }
+
+        // no more functions are read once the consumer has failed
+        while (failure == null && inputs.hasNext()) {
+            // wait for a delivered result before reading further when the job is full
+            inFlight.acquire();
+            long index = count++;
+            String input = inputs.next();
+
+            CompletableFuture.supplyAsync(() -> new QuineMcCluskey(input, form), io)
+                    .thenApplyAsync(q -> {
+                        q.setCubeStore(cubeStore);
+                        configure.accept(q);
+                        q.solve();
+                        return q;
+                    }, cpu)
+                    .handleAsync((q, e) -> {
+                        deliver(new Result(index, input, e == null ? q : null, e == null ? null : unwrap(e)), results);
+                        return null;
+                    }, io);
+        }
+
+        // every permit is returned once every result is delivered
+        inFlight.acquire(capacity);
+        inFlight.release(capacity);
+
+        Throwable e = failure;
+        if (e instanceof Error)
+            throw (Error) e;
+        if (e != null)
+            throw (RuntimeException) e;
+        return count;
+    }
+
+    /**
+     * delivers a result, holding it back until the results before it are delivered if ordered
+     * @param result the result of a function
+     * @param results receives every result, one at a time
+     */
+    private void deliver(Result result, Consumer<Result> results) {
+        synchronized (pending) {
+            if (!ordered) {
+                accept(result, results);
+                return;
+            }
+
+            pending.put(result.getIndex(), result);
+            while (!pending.isEmpty() && pending.firstKey() == next) {
+                // moves on before the consumer runs, so that a failing consumer holds back no later result
+                next++;
+                accept(pending.pollFirstEntry().getValue(), results);
+            }
+        }
+    }
+
+    /**
+     * passes a result to the consumer and releases its permit even if the consumer fails, keeping
+     * the first exception of the consumer and skipping it for every later result
+     * @param result the result of a function
+     * @param results receives every result, one at a time
+     */
+    private void accept(Result result, Consumer<Result> results) {
+        try {
+            if (failure == null)
+                results.accept(result);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * gets the exception thrown by a stage of a function
+     * @param e the exception wrapped by the completable future
+     * @return the runtime exception thrown by the stage
+     */
+    private static RuntimeException unwrap(Throwable e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RuntimeException)
+            return (RuntimeException) cause;
+        return new RuntimeException(cause);
+    }
+
+    /**
+     * shuts down the threads of the job
+     */
+    @Override
+    public void close() {
+        io.shutdown();
+        cpu.shutdown();
+    }
+}
@@ -0,0 +1,103 @@
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The MinimizationJobCheck class checks that a MinimizationJob ends when the consumer of its results
+ * fails. A consumer throwing on the result k of n functions must make run() throw that exception
+ * within a time limit, in input order and in completion order alike, rather than hold back the later
+ * results and wait for their permits forever. A job whose consumer does not fail must deliver every
+ * result.
+ */
+public class MinimizationJobCheck {
+
+    /**
+     * milliseconds a job may take before it is taken to hang
+     */
+    private static final long TIMEOUT = 30_000;
+
+    /**
+     * exception thrown by the failing consumer
+     */
+    private static class ConsumerFailure extends RuntimeException {
+        /**
+         * version of the serialized form of the exception
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * constructor for the exception thrown on a result
+         * @param index the index of the result
+         */
+        ConsumerFailure(long index) {
+            super("consumer failed on result " + index);
+        }
+    }
+
+    /**
+     * @param args the number of functions of each job, optional
+     * @throws InterruptedException if interrupted while waiting for a job
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        ArrayList<String> inputs = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            inputs.add("0 1 2 5 6 7 " + (8 + i % 8));
+        }
+
+        int failures = 0;
+        for (boolean ordered : new boolean[] {true, false}) {
+            for (int k : new int[] {-1, 0, 5, n - 1}) {
+                String failure = check(inputs, ordered, k);
+                String name = (ordered ? "ordered" : "unordered") + (k < 0 ? ", no failure" : ", failing on " + k);
+                if (failure != null) {
+                    failures++;
+                    System.err.println(name + ": " + failure);
+                } else {
+                    System.out.println(name + ": ok");
+                }
+            }
+        }
+        if (failures != 0)
+            System.exit(1);
+    }
+
+    /**
+     * runs a job whose consumer throws on one result
+     * @param inputs the functions of the job
+     * @param ordered true to deliver results in input order
+     * @param k the index of the result the consumer throws on, -1 for a consumer that never throws
+     * @return a description of the failure, else null if the job ended as expected
+     * @throws InterruptedException if interrupted while waiting for the job
+     */
+    private static String check(ArrayList<String> inputs, boolean ordered, int k) throws InterruptedException {
+        AtomicInteger delivered = new AtomicInteger();
+        Object[] outcome = new Object[1];
+
+        try (MinimizationJob job = new MinimizationJob(2, 4, ordered, QuineMcCluskey.Form.SOP)) {
+            Thread runner = new Thread(() -> {
+                try {
+                    outcome[0] = job.run(inputs.iterator(), r -> {
+                        delivered.incrementAndGet();
+                        if (r.getIndex() == k)
+                            throw new ConsumerFailure(k);
+                    });
+                } catch (RuntimeException | InterruptedException e) {
+                    outcome[0] = e;
+                }
+            });
+            runner.setDaemon(true);
+            runner.start();
+            runner.join(TIMEOUT);
+            if (runner.isAlive())
+                return "run() still blocked after " + TIMEOUT + " ms with " + delivered.get() + " results delivered";
+        }
+
+        if (k < 0) {
+            if (!Long.valueOf(inputs.size()).equals(outcome[0]) || delivered.get() != inputs.size())
+                return "expected " + inputs.size() + " results, got " + outcome[0] + " with " + delivered.get() + " delivered";
+        } else if (!(outcome[0] instanceof ConsumerFailure)) {
+            return "expected the consumer's exception, got " + outcome[0];
+        }
+        return null;
+    }
+}
@@ -0,0 +1,170 @@
+import java.io.*;
+import java.util.ArrayList;
+
+/**
+ * The MinimumTable class provides the minimum sum of products covers of every function of up to four
+ * variables, generated at build time by the QuineMcCluskey class and loaded lazily from the jar. Each
+ * term of a cover is encoded in one byte as a base-3 number of its four positions, so that the whole
+ * table takes a few hundred kilobytes.
+ */
+public class MinimumTable {
+
+    /**
+     * maximum number of variables of the functions in the table
+     */
+    public static final int VARIABLES = 4;
+
+    /**
+     * name of the resource holding the table
+     */
+    static final String RESOURCE = "/minimum-table.bin";
+
+    /**
+     * number of functions in the table, one per truth table
+     */
+    private static final int FUNCTIONS = 1 << (1 << VARIABLES);
+
+    /**
+     * binary form of each encoded term
+     */
+    private static final String[] CUBES = new String[81];
+
+    static {
+        for (int c = 0; c < CUBES.length; c++) {
+            char[] chars = new char[VARIABLES];
+            int rest = c;
+            for (int i = VARIABLES - 1; i >= 0; i--) {
+                chars[i] = "01-".charAt(rest % 3);
+                rest /= 3;
+            }
+            CUBES[c] = new String(chars);
+        }
+    }
+
+    /**
+     * holder of the table, loaded the first time it is needed
+     */
+    private static class Holder {
+        static final MinimumTable TABLE = load();
+    }
+
+    /**
+     * encoded covers of every function, each a number of covers followed by the terms of each cover
+     */
+    private final byte[] data;
+
+    /**
+     * position in data of the covers of each function
+     */
+    private final int[] offsets = new int[FUNCTIONS];
+
+    /**
+     * constructor for a table from its encoded covers
+     * @param data the encoded covers of every function
+     */
+    private MinimumTable(byte[] data) {
+        this.data = data;
+
+        // the position of each function is found by skipping the covers before it
+        int p = 0;
+        for (int f = 0; f < FUNCTIONS; f++) {
+            offsets[f] = p;
+            int covers = (data[p] & 0xFF) << 8 | (data[p + 1] & 0xFF);
+            p += 2;
+            for (int k = 0; k < covers; k++) {
+                p += 1 + data[p];
+            }
+        }
+    }
+
+    /**
+     * gets the table, loading it from the jar the first time
+     * @return the table, else null if the jar does not contain it
+     */
+    public static MinimumTable get() {
+        return Holder.TABLE;
+    }
+
+    /**
+     * loads the table from its resource
+     * @return the table, else null if the resource is missing or cannot be read
+     */
+    private static MinimumTable load() {
+        try (InputStream in = MinimumTable.class.getResourceAsStream(RESOURCE)) {
+            if (in == null)
+                return null;
+            return new MinimumTable(in.readAllBytes());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * gets the minimum covers of a function in the order the QuineMcCluskey class finds them
+     * @param function the truth table of the function, bit m set if minterm m is in the function
+     * @param variables the number of variables of the function, at most four
+     * @return array of the covers, each an array list of terms in binary form with one position per variable
+     */
+    public ArrayList<String>[] lookup(int function, int variables) {
+        int p = offsets[function];
+        int covers = (data[p] & 0xFF) << 8 | (data[p + 1] & 0xFF);
+        p += 2;
+
+        ArrayList<String>[] result = new ArrayList[covers];
+        for (int k = 0; k < covers; k++) {
+            int size = data[p++];
+            result[k] = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                // the positions of missing variables are always '0', so they are cut off
+                result[k].add(CUBES[data[p++]].substring(VARIABLES - variables));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * encodes a term in binary form of four positions as a base-3 number
+     * @param term the term in binary form
+     * @return the encoded term from 0 to 80
+     */
+    static int encode(String term) {
+        int c = 0;
+        for (int i = 0; i < term.length(); i++) {
+            c = c * 3 + "01-".indexOf(term.charAt(i));
+        }
+        return c;
+    }
+
+    /**
+     * generates the table by solving every function of four variables
+     * @param args the path of the generated table
+     * @throws IOException if the table cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(args[0])))) {
+            for (int f = 0; f < FUNCTIONS; f++) {
+                int[] minterms = new int[Integer.bitCount(f)];
+                int k = 0;
+                for (int m = 0; m < (1 << VARIABLES); m++) {
+                    if ((f >>> m & 1) == 1)
+                        minterms[k++] = m;
+                }
+
+                QuineMcCluskey q = new QuineMcCluskey(minterms, QuineMcCluskey.Form.SOP);
+                q.setLookupTable(false);
+                q.solve();
+
+                ArrayList<String>[] solutions = q.getSolutions();
+                out.writeShort(solutions.length);
+                for (int s = 0; s < solutions.length; s++) {
+                    out.writeByte(solutions[s].size());
+                    for (int i = 0; i < solutions[s].size(); i++) {
+                        // narrower functions are padded with the '0' of their missing variables
+                        String term = solutions[s].get(i);
+                        out.writeByte(encode("0".repeat(VARIABLES - term.length()) + term));
+                    }
+                }
+            }
+        }
+    }
+}
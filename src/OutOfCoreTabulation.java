@@ -0,0 +1,494 @@
+import java.io.*;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The OutOfCoreTabulation class provides the tabulation of the QuineMcCluskey class for functions
+ * whose intermediate terms do not fit in memory. Each level of terms is kept in a file of packed
+ * terms sorted by mask then value, which is memory-mapped in windows of 1 GB while the next level
+ * is built, so that levels are not limited to the 2 GB of a single mapping. Merged terms are
+ * buffered, sorted and spilled as run files, which are merged into the file of the next level.
+ * Terms that merge with no other term are written to a file of prime implicants of the level, which
+ * joins the file of every prime implicant once the level is done, so that only the buffers are kept
+ * in memory. Since a mapped file cannot be deleted on some platforms until it is unmapped, the files
+ * of finished levels that cannot be deleted yet are left to close().
+ */
+public class OutOfCoreTabulation implements AutoCloseable {
+
+    /**
+     * default number of merged terms buffered in memory before they are spilled to a run file
+     */
+    public static final int DEFAULT_BUFFER = 1 << 20;
+
+    /**
+     * base 2 logarithm of the number of terms of a mapped window, 1 GB of packed terms
+     */
+    private static final int WINDOW_SHIFT = 27;
+
+    /**
+     * number of variables of the function
+     */
+    private final int length;
+
+    /**
+     * directory holding the files of the tabulation
+     */
+    private final Path directory;
+
+    /**
+     * true if the directory was created by the tabulation and is deleted when closed
+     */
+    private final boolean temporary;
+
+    /**
+     * number of merged terms buffered in memory before they are spilled to a run file
+     */
+    private final int bufferSize;
+
+    /**
+     * file of the prime implicants as packed terms in the order they were found
+     */
+    private final Path primes;
+
+    /**
+     * file of the current level of terms
+     */
+    private Path level;
+
+    /**
+     * number of files created so far, used to name them
+     */
+    private int files;
+
+    /**
+     * number of levels tabulated
+     */
+    private int levels;
+
+    /**
+     * base 2 logarithm of the number of terms of a mapped window
+     */
+    private int windowShift = WINDOW_SHIFT;
+
+    /**
+     * true if the budget ran out before every level was tabulated
+     */
+    private boolean truncated;
+
+    /**
+     * files no longer used that could not be deleted yet, such as levels still mapped
+     */
+    private final ArrayList<Path> stale = new ArrayList<>();
+
+    /**
+     * constructor for the initialization of the first level of the tabulation
+     * @param minterms the sorted minterms of the function, without duplicates
+     * @param length the number of variables of the function
+     * @param directory the directory holding the files of the tabulation, null for a temporary directory
+     * @param bufferSize the number of merged terms buffered in memory before they are spilled
+     * @throws IOException if the files cannot be created
+     */
+    public OutOfCoreTabulation(int[] minterms, int length, Path directory, int bufferSize) throws IOException {
+        this.length = length;
+        this.temporary = directory == null;
+        this.directory = temporary ? Files.createTempDirectory("qmmp") : directory;
+        this.bufferSize = bufferSize;
+        this.primes = newFile();
+        Files.createFile(primes);
+
+        // sorted minterms are already sorted packed terms with an empty mask
+        long[] first = new long[minterms.length];
+        for (int i = 0; i < minterms.length; i++) {
+            first[i] = Term.pack(minterms[i], 0);
+        }
+        this.level = newFile();
+        write(level, first, first.length);
+    }
+
+    /**
+     * sets the size of the mapped windows, which small windows let be checked on small levels
+     * @param shift the base 2 logarithm of the number of terms of a window, at most WINDOW_SHIFT
+     */
+    void setWindowShift(int shift) {
+        this.windowShift = Math.min(shift, WINDOW_SHIFT);
+    }
+
+    /**
+     * tabulates every level until no terms merge, appending the prime implicants to their file
+     * @throws IOException if the files cannot be read or written
+     */
+    public void run() throws IOException {
+        run(Budget.NONE);
+    }
+
+    /**
+     * tabulates every level until no terms merge or the budget runs out, appending the prime
+     * implicants to their file. The budget is polled once per level and once per term read, and once
+     * it runs out the level being built is dropped and every term of the current level is kept as an
+     * implicant, which still covers the function but may not be prime.
+     * @param budget the budget of the solve
+     * @throws IOException if the files cannot be read or written
+     */
+    public void run(Budget budget) throws IOException {
+        while (Files.size(level) > 0) {
+            Path levelPrimes = newFile();
+            Path next = null;
+            if (!budget.exceeded()) {
+                try {
+                    next = tabulate(level, levelPrimes, budget);
+                } catch (Budget.ExceededException e) {
+                    next = null;
+                }
+            }
+
+            if (next == null) {
+                truncated = true;
+                delete(levelPrimes);
+                append(level, primes);
+                delete(level);
+                level = newFile();
+                Files.createFile(level);
+                return;
+            }
+
+            append(levelPrimes, primes);
+            delete(levelPrimes);
+            delete(level);
+            level = next;
+            levels++;
+        }
+    }
+
+    /**
+     * builds the next level from a level file, joining each term with the partner differing in each free bit
+     * @param current the file of the current level
+     * @param levelPrimes the file receiving the prime implicants of the level
+     * @param budget the budget of the solve, checked once per term read
+     * @return the file of the next level
+     * @throws IOException if the files cannot be read or written
+     * @throws Budget.ExceededException if the budget runs out, after deleting the run files
+     */
+    private Path tabulate(Path current, Path levelPrimes, Budget budget) throws IOException {
+        ArrayList<Path> runs = new ArrayList<>();
+        int buffered = 0;
+
+        try (FileChannel channel = FileChannel.open(current, StandardOpenOption.READ);
+                DataOutputStream primeOut = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(levelPrimes)))) {
+            LongBuffer[] terms = map(channel);
+            long size = channel.size() / Long.BYTES;
+
+            // a level of few terms cannot fill the whole buffer, each term merging at most once per free bit
+            long[] buffer = new long[(int) Math.min(bufferSize, Math.max(1L, size * length))];
+
+            for (long i = 0; i < size; i++) {
+                budget.check();
+                long term = get(terms, i);
+                int value = (int) term;
+                int mask = (int) (term >>> 32);
+
+                boolean checked = false;
+                for (int b = 0; b < length; b++) {
+                    int bit = 1 << b;
+                    if ((mask & bit) != 0)
+                        continue;
+
+                    // the partner has the same mask, so it is found by searching the sorted level
+                    if (contains(terms, size, Term.pack(value ^ bit, mask))) {
+                        checked = true;
+
+                        // only the term with the 0 emits the merge, so each pair is merged once
+                        if ((value & bit) == 0) {
+                            if (buffered == buffer.length) {
+                                runs.add(spill(buffer, buffered));
+                                buffered = 0;
+                            }
+                            buffer[buffered++] = Term.pack(value, mask | bit);
+                        }
+                    }
+                }
+
+                if (!checked)
+                    primeOut.writeLong(term);
+            }
+
+            if (buffered > 0)
+                runs.add(spill(buffer, buffered));
+        } catch (Budget.ExceededException e) {
+            for (Path run : runs) {
+                delete(run);
+            }
+            throw e;
+        }
+        return merge(runs, budget);
+    }
+
+    /**
+     * maps a level file in windows of at most 1 &lt;&lt; windowShift terms
+     * @param channel the channel of the level file
+     * @return array of the windows in file order
+     * @throws IOException if the file cannot be mapped
+     */
+    private LongBuffer[] map(FileChannel channel) throws IOException {
+        long size = channel.size() / Long.BYTES;
+        long window = 1L << windowShift;
+        LongBuffer[] windows = new LongBuffer[(int) ((size + window - 1) >>> windowShift)];
+        for (int w = 0; w < windows.length; w++) {
+            long start = (long) w << windowShift;
+            long count = Math.min(window, size - start);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start * Long.BYTES, count * Long.BYTES);
+            windows[w] = mapped.asLongBuffer();
+        }
+        return windows;
+    }
+
+    /**
+     * gets a term of a mapped level
+     * @param terms the windows of the level
+     * @param i the index of the term in the level
+     * @return the packed term
+     */
+    private long get(LongBuffer[] terms, long i) {
+        return terms[(int) (i >>> windowShift)].get((int) (i & ((1L << windowShift) - 1)));
+    }
+
+    /**
+     * searches for a packed term in a sorted level
+     * @param terms the windows of the level
+     * @param size the number of terms in the level
+     * @param key the packed term
+     * @return true if the level contains the term, else false
+     */
+    private boolean contains(LongBuffer[] terms, long size, long key) {
+        long lo = 0;
+        long hi = size - 1;
+        while (lo <= hi) {
+            long mid = (lo + hi) >>> 1;
+            long t = get(terms, mid);
+            if (t < key)
+                lo = mid + 1;
+            else if (t > key)
+                hi = mid - 1;
+            else
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * sorts the buffered terms and writes them without duplicates to a run file
+     * @param buffer the buffered terms
+     * @param size the number of buffered terms
+     * @return the run file
+     * @throws IOException if the file cannot be written
+     */
+    private Path spill(long[] buffer, int size) throws IOException {
+        Arrays.sort(buffer, 0, size);
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (unique == 0 || buffer[unique - 1] != buffer[i])
+                buffer[unique++] = buffer[i];
+        }
+        Path run = newFile();
+        write(run, buffer, unique);
+        return run;
+    }
+
+    /**
+     * merges sorted run files into one sorted file without duplicates, deleting the runs
+     * @param runs the run files
+     * @param budget the budget of the solve, checked once per term read
+     * @return the merged file
+     * @throws IOException if the files cannot be read or written
+     * @throws Budget.ExceededException if the budget runs out, after deleting the runs and the merged file
+     */
+    private Path merge(ArrayList<Path> runs, Budget budget) throws IOException {
+        Path merged = newFile();
+        DataInputStream[] in = new DataInputStream[runs.size()];
+        long[] heads = new long[runs.size()];
+
+        // queue of the runs ordered by their current head
+        PriorityQueue<Integer> queue = new PriorityQueue<>(Math.max(1, runs.size()),
+                (a, b) -> Long.compare(heads[a], heads[b]));
+
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(merged)))) {
+                for (int i = 0; i < runs.size(); i++) {
+                    in[i] = new DataInputStream(new BufferedInputStream(Files.newInputStream(runs.get(i))));
+                    if (advance(in[i], heads, i))
+                        queue.add(i);
+                }
+
+                boolean first = true;
+                long last = 0;
+                while (!queue.isEmpty()) {
+                    budget.check();
+                    int r = queue.poll();
+                    if (first || heads[r] != last) {
+                        out.writeLong(heads[r]);
+                        last = heads[r];
+                        first = false;
+                    }
+                    if (advance(in[r], heads, r))
+                        queue.add(r);
+                }
+            } finally {
+                for (int i = 0; i < in.length; i++) {
+                    if (in[i] != null)
+                        in[i].close();
+                }
+            }
+        } catch (Budget.ExceededException e) {
+            for (int i = 0; i < runs.size(); i++) {
+                delete(runs.get(i));
+            }
+            delete(merged);
+            throw e;
+        }
+
+        for (int i = 0; i < runs.size(); i++) {
+            delete(runs.get(i));
+        }
+        return merged;
+    }
+
+    /**
+     * appends the content of a file to another
+     * @param from the file to be copied
+     * @param to the file receiving the copy at its end
+     * @throws IOException if the files cannot be read or written
+     */
+    private static void append(Path from, Path to) throws IOException {
+        try (FileChannel in = FileChannel.open(from, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(to, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long position = 0;
+            long size = in.size();
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    /**
+     * deletes a file no longer used, leaving it to close() if it cannot be deleted yet, such as a
+     * level whose mapping is still held
+     * @param file the file to be deleted
+     */
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            stale.add(file);
+        }
+    }
+
+    /**
+     * reads the next term of a run file
+     * @param in the stream of the run file
+     * @param heads array of the current head of each run
+     * @param i the index of the run
+     * @return true if a term was read, else false at the end of the run
+     * @throws IOException if the file cannot be read
+     */
+    private static boolean advance(DataInputStream in, long[] heads, int i) throws IOException {
+        try {
+            heads[i] = in.readLong();
+            return true;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * writes packed terms to a file
+     * @param file the file to be written
+     * @param terms the packed terms
+     * @param size the number of terms to be written
+     * @throws IOException if the file cannot be written
+     */
+    private static void write(Path file, long[] terms, int size) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (int i = 0; i < size; i++) {
+                out.writeLong(terms[i]);
+            }
+        }
+    }
+
+    /**
+     * gets the path of a new file in the directory of the tabulation
+     * @return the path of the file, which does not exist yet
+     */
+    private Path newFile() {
+        return directory.resolve("qm-" + (files++) + ".bin");
+    }
+
+    /**
+     * counts the prime implicants found so far without reading them
+     * @return the number of prime implicants
+     * @throws IOException if the size of the file cannot be read
+     */
+    public long count() throws IOException {
+        return Files.size(primes) / Long.BYTES;
+    }
+
+    /**
+     * gets the number of levels tabulated by run()
+     * @return the number of levels that produced terms
+     */
+    public int getLevels() {
+        return levels;
+    }
+
+    /**
+     * checks if the budget ran out before every level was tabulated.
+     * @return true if some implicants may not be prime, else false
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * reads the prime implicants from their file as terms
+     * @return array list of every prime implicant found
+     * @throws IOException if the file cannot be read
+     */
+    public ArrayList<Term> enumerate() throws IOException {
+        ArrayList<Term> result = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(primes)))) {
+            long n = count();
+            for (long i = 0; i < n; i++) {
+                long term = in.readLong();
+                result.add(new Term((int) term, (int) (term >>> 32), length));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * deletes the files of the tabulation, and its directory if it was temporary. Files still mapped
+     * are deleted when the virtual machine exits if they cannot be deleted now.
+     * @throws IOException if a file that is not mapped cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        delete(level);
+        delete(primes);
+        for (Path file : stale) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                file.toFile().deleteOnExit();
+            }
+        }
+        if (temporary) {
+            try {
+                Files.deleteIfExists(directory);
+            } catch (DirectoryNotEmptyException e) {
+                directory.toFile().deleteOnExit();
+            }
+        }
+    }
+}
@@ -0,0 +1,341 @@
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Petrick class provides a parallel implementation of Petrick's method for the
+ * covering stage of the QuineMcCluskey class. The product of the clauses is split across
+ * fork/join tasks sharing a bound on the cost of the best cover found so far, so that
+ * products which can no longer be minimal are dropped as soon as they are generated.
+ * The cost of a product is the sum of the weights of its rows.
+ */
+public class Petrick {
+
+    /**
+     * maximum number of clauses multiplied sequentially by a single task
+     */
+    private static final int THRESHOLD = 4;
+
+    /**
+     * task multiplying a range of clauses, splitting it in halves until small enough
+     * @see RecursiveTask
+     */
+    private class Product extends RecursiveTask<ArrayList<BitSet>> {
+        /**
+         * version of the serialized form of the task
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * index of the first clause multiplied by the task
+         */
+        private final int from;
+
+        /**
+         * index after the last clause multiplied by the task
+         */
+        private final int to;
+
+        /**
+         * constructor for a task multiplying clauses from index from up to, but excluding, index to
+         * @param from the index of the first clause
+         * @param to the index after the last clause
+         */
+        Product(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * multiplies the range of clauses
+         * @return the absorbed products of the range that do not exceed the bound
+         */
+        @Override
+        protected ArrayList<BitSet> compute() {
+            ArrayList<BitSet> result;
+
+            if (to - from <= THRESHOLD) {
+                // multiply small ranges clause by clause starting from the empty product
+                result = new ArrayList<>();
+                result.add(new BitSet());
+                for (int i = from; i < to; i++) {
+                    budget.check();
+                    result = multiply(result, clauses[i]);
+                }
+            } else {
+                // split the range in halves, computing the left half in another task
+                int middle = (from + to) >>> 1;
+                Product left = new Product(from, middle);
+                left.fork();
+                ArrayList<BitSet> right = new Product(middle, to).compute();
+                result = multiply(left.join(), right);
+            }
+
+            result = absorb(result);
+            tighten(result);
+            return result;
+        }
+    }
+
+    /**
+     * array of clauses, each containing the indices of the rows covering one minterm
+     */
+    private final BitSet[] clauses;
+
+    /**
+     * array of positive weights of each row
+     */
+    private final long[] weights;
+
+    /**
+     * cost of the best complete cover found so far, shared by every task
+     */
+    private final AtomicLong bound;
+
+    /**
+     * budget polled while multiplying, after which the greedy cover is returned
+     */
+    private final Budget budget;
+
+    /**
+     * true if the budget ran out before every clause was multiplied
+     */
+    private volatile boolean interrupted;
+
+    /**
+     * constructor for the initialization of the product of a reduced prime implicant chart
+     * @param clauses array of sets containing the indices of the rows covering each minterm
+     * @param weights array of positive weights of each row
+     */
+    public Petrick(BitSet[] clauses, long[] weights) {
+        this(clauses, weights, Budget.NONE);
+    }
+
+    /**
+     * constructor for the initialization of the product of a reduced prime implicant chart within a budget
+     * @param clauses array of sets containing the indices of the rows covering each minterm
+     * @param weights array of positive weights of each row
+     * @param budget the budget after which the greedy cover is returned instead
+     */
+    public Petrick(BitSet[] clauses, long[] weights, Budget budget) {
+        this.clauses = clauses;
+        this.weights = weights;
+        this.budget = budget;
+        this.bound = new AtomicLong(Long.MAX_VALUE);
+    }
+
+    /**
+     * checks if the budget ran out, in which case solve() returned the greedy cover
+     * @return true if the covers are not proven minimum, else false
+     */
+    public boolean isInterrupted() {
+        return interrupted;
+    }
+
+    /**
+     * multiplies every clause and keeps the products of minimum cost
+     * @return array list of every minimum cover as sets of row indices
+     */
+    public ArrayList<BitSet> solve() {
+        ArrayList<BitSet> result = new ArrayList<>();
+        if (clauses.length == 0) {
+            result.add(new BitSet());
+            return result;
+        }
+
+        // start from the cost of a greedy cover so that pruning begins immediately
+        BitSet greedy = greedy(clauses, weights, new BitSet());
+        bound.set(cost(greedy));
+
+        ArrayList<BitSet> products;
+        try {
+            products = ForkJoinPool.commonPool().invoke(new Product(0, clauses.length));
+        } catch (RuntimeException e) {
+            // the exception may be rethrown as a copy, so the budget itself tells why the tasks stopped
+            if (!budget.exceeded())
+                throw e;
+            interrupted = true;
+            result.add(greedy);
+            return result;
+        }
+
+        // keep only the products with the minimum cost
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < products.size(); i++) {
+            min = Math.min(min, cost(products.get(i)));
+        }
+        for (int i = 0; i < products.size(); i++) {
+            if (cost(products.get(i)) == min)
+                result.add(products.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * computes the cost of a product
+     * @param product the set of row indices
+     * @return the sum of the weights of every row in the product
+     */
+    long cost(BitSet product) {
+        long sum = 0;
+        for (int r = product.nextSetBit(0); r >= 0; r = product.nextSetBit(r + 1)) {
+            sum += weights[r];
+        }
+        return sum;
+    }
+
+    /**
+     * multiplies a list of products with a single clause, dropping products exceeding the bound
+     * @param products the list of products to be multiplied
+     * @param clause the set of row indices to be multiplied
+     * @return list of the resulting products without duplicates
+     */
+    private ArrayList<BitSet> multiply(ArrayList<BitSet> products, BitSet clause) {
+        HashSet<BitSet> s = new HashSet<>();
+        for (int i = 0; i < products.size(); i++) {
+            budget.check();
+            BitSet p = products.get(i);
+
+            // a product already containing a row of the clause absorbs every other product with it
+            if (p.intersects(clause)) {
+                s.add(p);
+                continue;
+            }
+            for (int r = clause.nextSetBit(0); r >= 0; r = clause.nextSetBit(r + 1)) {
+                BitSet n = (BitSet) p.clone();
+                n.set(r);
+                if (cost(n) <= bound.get())
+                    s.add(n);
+            }
+        }
+        return new ArrayList<>(s);
+    }
+
+    /**
+     * multiplies two lists of products, dropping products exceeding the bound
+     * @param a the first list of products
+     * @param b the second list of products
+     * @return list of the resulting products without duplicates
+     */
+    private ArrayList<BitSet> multiply(ArrayList<BitSet> a, ArrayList<BitSet> b) {
+        HashSet<BitSet> s = new HashSet<>();
+        for (int i = 0; i < a.size(); i++) {
+            budget.check();
+            for (int j = 0; j < b.size(); j++) {
+                BitSet n = (BitSet) a.get(i).clone();
+                n.or(b.get(j));
+                if (cost(n) <= bound.get())
+                    s.add(n);
+            }
+        }
+        return new ArrayList<>(s);
+    }
+
+    /**
+     * removes products containing another product, since X + XY = X
+     * @param products the list of products to be absorbed
+     * @return list of products where no product contains another
+     */
+    private ArrayList<BitSet> absorb(ArrayList<BitSet> products) {
+        // smaller products can only absorb larger ones, so check them first
+        products.sort(Comparator.comparingInt(BitSet::cardinality));
+
+        ArrayList<BitSet> result = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            budget.check();
+            BitSet p = products.get(i);
+            boolean absorbed = false;
+            for (int j = 0; j < result.size() && !absorbed; j++) {
+                BitSet t = (BitSet) result.get(j).clone();
+                t.andNot(p);
+                absorbed = t.isEmpty();
+            }
+            if (!absorbed)
+                result.add(p);
+        }
+        return result;
+    }
+
+    /**
+     * completes the cheapest product of a task into a cover and lowers the shared bound with it
+     * @param products the list of products computed by a task
+     */
+    private void tighten(ArrayList<BitSet> products) {
+        if (products.isEmpty())
+            return;
+
+        // find the cheapest product of the task
+        BitSet cheapest = products.get(0);
+        for (int i = 1; i < products.size(); i++) {
+            if (cost(products.get(i)) < cost(cheapest))
+                cheapest = products.get(i);
+        }
+        bound.accumulateAndGet(cost(greedy(clauses, weights, cheapest)), Math::min);
+    }
+
+    /**
+     * completes a partial product into a cover, repeatedly adding the row hitting the most remaining clauses per weight
+     * @param clauses array of sets containing the indices of the rows covering each minterm
+     * @param weights array of positive weights of each row
+     * @param start the rows already chosen
+     * @return a set of rows hitting every clause
+     */
+    static BitSet greedy(BitSet[] clauses, long[] weights, BitSet start) {
+        BitSet chosen = (BitSet) start.clone();
+
+        // count the remaining clauses hit by each row, listing the clauses of each row
+        int[] hits = new int[weights.length];
+        ArrayList<Integer>[] hitBy = new ArrayList[weights.length];
+        boolean[] covered = new boolean[clauses.length];
+        int remaining = 0;
+        for (int i = 0; i < clauses.length; i++) {
+            if (clauses[i].intersects(chosen)) {
+                covered[i] = true;
+                continue;
+            }
+            remaining++;
+            for (int r = clauses[i].nextSetBit(0); r >= 0; r = clauses[i].nextSetBit(r + 1)) {
+                hits[r]++;
+                if (hitBy[r] == null)
+                    hitBy[r] = new ArrayList<>();
+                hitBy[r].add(i);
+            }
+        }
+
+        // queue of rows by their ratio of hits to weight, preferring lower indices, updated lazily
+        // since ratios only decrease: an entry whose hits are out of date is queued again when polled
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> {
+            int c = Double.compare((double) b[1] / weights[(int) b[0]], (double) a[1] / weights[(int) a[0]]);
+            return c != 0 ? c : Long.compare(a[0], b[0]);
+        });
+        for (int r = 0; r < hits.length; r++) {
+            if (hits[r] > 0)
+                queue.add(new long[] {r, hits[r]});
+        }
+
+        while (remaining > 0) {
+            // choose the row with the highest ratio of hits to weight
+            long[] top = queue.poll();
+            int best = (int) top[0];
+            if (top[1] != hits[best]) {
+                if (hits[best] > 0)
+                    queue.add(new long[] {best, hits[best]});
+                continue;
+            }
+
+            // the clauses of the chosen row no longer count for the rows in them
+            chosen.set(best);
+            for (int i : hitBy[best]) {
+                if (covered[i])
+                    continue;
+                covered[i] = true;
+                remaining--;
+                for (int r = clauses[i].nextSetBit(0); r >= 0; r = clauses[i].nextSetBit(r + 1)) {
+                    hits[r]--;
+                }
+            }
+        }
+        return chosen;
+    }
+}
@@ -1,5 +1,4 @@
 import java.util.*;
-import javax.swing.JOptionPane;
 
 /**
  * The QuineMcCluskey class provides all fields and methods necessary for solving
@@ -60,44 +59,247 @@ public class QuineMcCluskey {
     private ArrayList<Term> finalTerms;
 
     /**
-     * array list of array lists storing terms gathered from the first step of solving
+     * compact record of the merges of the first step of solving, null unless traced
      */
-    public ArrayList<ArrayList<Term>[]> firstStep;
+    private StepTrace trace;
 
     /**
-     * array list of Hash sets storing checked terms gathered from the first step of solving
+     * true if the tabulation records its merges for step by step displays
      */
-    public ArrayList<HashSet<String>> checkedFirstStep;
+    private boolean tracing;
 
     /**
-     * array list storing simplified terms after using Petrick's method
+     * array list storing simplified terms after using Petrick's method, filled by the reference covering
      */
     public ArrayList<String> simplified;
 
+    /**
+     * forms of the resulting Boolean expression
+     */
+    public enum Form {
+        /** sum-of-products, tabulating the on-set */
+        SOP,
+        /** product-of-sums, tabulating the off-set */
+        POS,
+        /** whichever of SOP and POS tabulates the smaller set of minterms */
+        AUTO
+    }
+
+    /**
+     * methods for choosing the minimum covers of a cyclic prime implicant chart
+     */
+    public enum Covering {
+        /** Petrick's method multiplying every clause sequentially, keeping every product */
+        PETRICK,
+        /** Petrick's method across fork/join tasks, dropping products exceeding the best cover found */
+        PARALLEL_PETRICK,
+        /** branch and bound returning a single cover, proven minimum unless the time limit is reached */
+        EXACT,
+        /** greedy cover preferring fewer literals, without redundant terms, not proven minimum */
+        GREEDY,
+        /** parallel randomized greedy covers improved by local search, not proven minimum */
+        LOCAL_SEARCH
+    }
+
+    /**
+     * methods for generating the prime implicants of the function
+     */
+    public enum PrimeGeneration {
+        /** tabulation of every level of grouped terms, which may be traced for getFirstStep() */
+        TABULATION,
+        /** decision diagrams computing the prime implicants without intermediate terms, leaving getFirstStep() empty */
+        IMPLICIT,
+        /** tabulation of every level in sorted files on disk, leaving getFirstStep() empty */
+        OUT_OF_CORE
+    }
+
+    /**
+     * method used by solve() to generate the prime implicants
+     */
+    private PrimeGeneration primeGeneration = PrimeGeneration.TABULATION;
+
+    /**
+     * number of variables that take the names entered by the user in printResults()
+     */
+    private static final int RENAMED_VARIABLES = 10;
+
+    /**
+     * largest length of an array the virtual machine allocates
+     */
+    private static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+
+    /**
+     * true if functions of up to four variables are answered from the precomputed MinimumTable
+     */
+    private boolean lookupTable = true;
+
+    /**
+     * true if variables the function does not depend on, or that complement it, are removed before solving
+     */
+    private boolean supportReduction = true;
+
+    /**
+     * directory holding the files of the out-of-core tabulation, null for a temporary directory
+     */
+    private java.nio.file.Path spillDirectory;
+
+    /**
+     * number of merged terms the out-of-core tabulation buffers in memory before spilling them
+     */
+    private int spillBuffer = OutOfCoreTabulation.DEFAULT_BUFFER;
+
+    /**
+     * true if every solution is checked against the truth table of the function after solving
+     */
+    private boolean verify;
+
+    /**
+     * true if the tabulation in memory finds the merges of a term from the bitmap of the on-set
+     */
+    private boolean neighborSearch = true;
+
+    /**
+     * merge test of the tabulation in memory, comparing a term against a whole group at once
+     */
+    private MergeKernel mergeKernel = MergeKernel.best();
+
+    /**
+     * store of merged terms shared with other functions of a job, null if the terms are not shared
+     */
+    private CubeStore cubeStore;
+
+    /**
+     * method used by simplify() to choose the minimum covers
+     */
+    private Covering covering = Covering.PARALLEL_PETRICK;
+
+    /**
+     * cost of each term minimized by the covering method
+     */
+    private CostModel costModel = CostModel.TERMS;
+
+    /**
+     * time limit in milliseconds of the exact covering method, 0 for no limit
+     */
+    private long timeLimit;
+
+    /**
+     * true if the solutions are proven to be of minimum cost
+     */
+    private boolean optimal = true;
+
+    /**
+     * time allowed for each solve in milliseconds, 0 for no limit
+     */
+    private long deadline;
+
+    /**
+     * growth of the used heap allowed for each solve in bytes, 0 for no limit
+     */
+    private long memoryBudget;
+
+    /**
+     * budget of the current solve, shared with the smaller functions of the support reduction
+     */
+    private Budget budget = Budget.NONE;
+
+    /**
+     * value of System.nanoTime() when the current solve started
+     */
+    private long started;
+
+    /**
+     * statistics of the last solve
+     */
+    private SolveStats stats = new SolveStats();
+
+    /**
+     * true if the tabulated terms belong to the off-set and solutions are printed as maxterm clauses
+     */
+    private boolean productOfSums;
+
     /**
      * constructor for the initialization of an object that implements the Quine-McCluskey method
      * @param mintermsStr a valid String containing the minterms to be solved
+     * @throws IllegalArgumentException if the String contains invalid or duplicate minterms
      */
     public QuineMcCluskey (String mintermsStr) {
-        // converts minterms string input to int array
+        this(mintermsStr, Form.SOP);
+    }
+
+    /**
+     * constructor for the initialization of an object that implements the Quine-McCluskey method
+     * in the given form
+     * @param mintermsStr a valid String containing the minterms to be solved
+     * @param form the form of the resulting expression
+     * @throws IllegalArgumentException if the String contains invalid or duplicate minterms
+     */
+    public QuineMcCluskey (String mintermsStr, Form form) {
+        // converts minterms string input to int array, which also rejects duplicates
         int[] minterms = convertString(mintermsStr);
 
+        initialize(minterms, form);
+    }
+
+    /**
+     * constructor for the initialization of an object that implements the Quine-McCluskey method
+     * from minterms that are already parsed
+     * @param minterms the minterms to be solved, without duplicates
+     * @param form the form of the resulting expression
+     */
+    public QuineMcCluskey (int[] minterms, Form form) {
         if (!checkRepeats(minterms)) {
-            JOptionPane.showMessageDialog(null, "Duplicates encountered. Please try again", "Error", JOptionPane.ERROR_MESSAGE);
-            return;
+            throw new IllegalArgumentException("Duplicate minterms");
         }
 
+        initialize(minterms.clone(), form);
+    }
+
+    /**
+     * constructor for a function of a fixed number of variables, used to solve the smaller
+     * functions of the support reduction
+     * @param minterms the sorted minterms to be solved, without duplicates
+     * @param length the number of variables of the function
+     */
+    QuineMcCluskey (int[] minterms, int length) {
+        maxLength = length;
+        initializeTerms(minterms);
+    }
+
+    /**
+     * initializes the fields of the object from the on-set of the function
+     * @param minterms the minterms of the on-set, without duplicates
+     * @param form the form of the resulting expression
+     */
+    private void initialize(int[] minterms, Form form) {
         // sorts minterms array
         Arrays.sort(minterms);
 
-        // calculate max. length of binary string
-        maxLength = Integer.toBinaryString(minterms[minterms.length - 1]).length();
+        // calculate max. length of binary string, an empty on-set is treated as a single variable
+        if (minterms.length == 0)
+            maxLength = 1;
+        else
+            maxLength = Integer.toBinaryString(minterms[minterms.length - 1]).length();
+
+        // choose the form from the sizes of both sets, building the off-set only if it is tabulated
+        if (form != Form.SOP) {
+            long offSet = (1L << maxLength) - minterms.length;
+            productOfSums = form == Form.POS || offSet < minterms.length;
+            if (productOfSums)
+                minterms = complement(minterms, maxLength);
+        }
 
+        initializeTerms(minterms);
+    }
+
+    /**
+     * initializes the terms to be tabulated from their sorted values
+     * @param minterms the sorted values of the terms, without duplicates
+     */
+    private void initializeTerms(int[] minterms) {
         this.minterms = new ArrayList<>();
 
         primeImplicants = new ArrayList<String>();
-        firstStep = new ArrayList<ArrayList<Term>[]>();
-        checkedFirstStep = new ArrayList<HashSet<String>>();
         simplified = new ArrayList<String>();
 
         // combine minterms in one array
@@ -118,10 +320,240 @@ public class QuineMcCluskey {
         Arrays.sort(terms, new OnesComparator());
     }
 
+    /**
+     * computes the minterms of the off-set within the range of a number of variables
+     * @param minterms the sorted minterms of the on-set
+     * @param length the number of variables
+     * @return sorted int array of every value not present in the on-set
+     * @throws IllegalArgumentException if the off-set does not fit in an array
+     */
+    private static int[] complement(int[] minterms, int length) {
+        long size = 1L << length;
+        if (size - minterms.length > MAX_ARRAY)
+            throw new IllegalArgumentException("Too many maxterms to tabulate the off-set");
+        int[] result = new int[(int) (size - minterms.length)];
+
+        // walk both ranges at once since the on-set is sorted
+        int k = 0;
+        int j = 0;
+        for (long i = 0; i < size; i++) {
+            if (j < minterms.length && minterms[j] == i)
+                j++;
+            else
+                result[k++] = (int) i;
+        }
+        return result;
+    }
+
+    /**
+     * checks if the solutions are products of maxterm clauses of the off-set
+     * @return true if the solutions are in product-of-sums form, else false
+     */
+    public boolean isProductOfSums() {
+        return productOfSums;
+    }
+
+    /**
+     * sets the method used to choose the minimum covers of a cyclic prime implicant chart
+     * @param covering the covering method
+     */
+    public void setCovering(Covering covering) {
+        this.covering = covering;
+    }
+
+    /**
+     * sets the cost of each term minimized by the covering method
+     * @param costModel the cost model, giving positive costs
+     */
+    public void setCostModel(CostModel costModel) {
+        this.costModel = costModel;
+    }
+
+    /**
+     * sets the method used to generate the prime implicants of the function
+     * @param primeGeneration the prime generation method
+     */
+    public void setPrimeGeneration(PrimeGeneration primeGeneration) {
+        this.primeGeneration = primeGeneration;
+    }
+
+    /**
+     * sets if the tabulation records its merges so that getFirstStep() and getCheckedFirstStep() can
+     * rebuild every level, which only applies to the tabulation in memory and skips the lookup table and
+     * the support reduction so that the function itself is tabulated
+     * @param tracing true to record the merges, else false to keep only the prime implicants
+     */
+    public void setTrace(boolean tracing) {
+        this.tracing = tracing;
+    }
+
+    /**
+     * sets if functions of up to four variables are answered from the precomputed MinimumTable, which
+     * only applies to the default prime generation, covering and cost model and leaves getFirstStep() empty
+     * @param lookupTable true to use the table when it applies, else false to always solve
+     */
+    public void setLookupTable(boolean lookupTable) {
+        this.lookupTable = lookupTable;
+    }
+
+    /**
+     * sets if variables the function does not depend on, or that complement it, are removed before
+     * solving, which does not apply to the reference Petrick covering or to custom cost models
+     * @param supportReduction true to solve through smaller functions when possible, else false
+     */
+    public void setSupportReduction(boolean supportReduction) {
+        this.supportReduction = supportReduction;
+    }
+
+    /**
+     * sets the directory holding the files of the out-of-core tabulation
+     * @param spillDirectory the directory of the files, null for a temporary directory
+     */
+    public void setSpillDirectory(java.nio.file.Path spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * sets the number of merged terms the out-of-core tabulation buffers in memory before spilling them
+     * @param spillBuffer the number of buffered terms, each taking 8 bytes
+     */
+    public void setSpillBuffer(int spillBuffer) {
+        if (spillBuffer < 1)
+            throw new IllegalArgumentException("Spill buffer must hold at least one term");
+        this.spillBuffer = spillBuffer;
+    }
+
+    /**
+     * sets if every solution is checked against the truth table of the function after solving, which
+     * only applies to functions of up to CoverVerifier.MAX_VARIABLES variables
+     * @param verify true to verify the solutions, else false
+     */
+    public void setVerify(boolean verify) {
+        this.verify = verify;
+    }
+
+    /**
+     * sets if the tabulation in memory finds the merges of a term from the bitmap of the on-set,
+     * testing only the terms differing from it in one position, which only applies to untraced
+     * functions of up to CoverVerifier.MAX_VARIABLES variables
+     * @param neighborSearch true to look up the neighbors of each term, else false to compare each
+     *                       term against the next group with the merge kernel
+     */
+    public void setNeighborSearch(boolean neighborSearch) {
+        this.neighborSearch = neighborSearch;
+    }
+
+    /**
+     * sets the merge test of the tabulation in memory, used when the neighbors of the terms are not
+     * looked up from the bitmap of the on-set
+     * @param mergeKernel the kernel, such as MergeKernel.SCALAR, or MergeKernel.best() by default
+     */
+    public void setMergeKernel(MergeKernel mergeKernel) {
+        this.mergeKernel = mergeKernel;
+    }
+
+    /**
+     * sets the store of merged terms shared with other functions, so that the tabulation takes equal
+     * terms from the store instead of keeping a copy of its own, which only applies to the tabulation
+     * in memory and still finds the merges of every term
+     * @param cubeStore the shared store, null to build every term
+     */
+    public void setCubeStore(CubeStore cubeStore) {
+        this.cubeStore = cubeStore;
+    }
+
+    /**
+     * sets the time limit of the exact covering method, after which it returns the best cover found so far
+     * @param timeLimit the time limit in milliseconds, 0 for no limit
+     */
+    public void setTimeLimit(long timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * sets the time allowed for each solve, after which the best solutions found so far are returned
+     * as not proven minimum: the stages give up early, the tabulation keeping its current level, and a
+     * quarter of the time is kept for a cover built without the chart
+     * @param deadline the time allowed in milliseconds, 0 for no limit
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * sets the growth of the used heap allowed for each solve, after which it settles for the best
+     * solutions found so far as with the deadline
+     * @param memoryBudget the growth allowed in bytes, 0 for no limit
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * gets every level of grouped terms of the first step of solving, rebuilt from the trace when first requested
+     * @return array list of the grouped terms of each level, empty unless the tabulation was traced
+     */
+    public ArrayList<ArrayList<Term>[]> getFirstStep() {
+        if (trace == null)
+            return new ArrayList<>();
+        return trace.getSteps();
+    }
+
+    /**
+     * gets the checked terms of each level of the first step of solving, rebuilt from the trace when first requested
+     * @return array list of the binary forms of the terms merged in each level, empty unless the tabulation was traced
+     */
+    public ArrayList<HashSet<String>> getCheckedFirstStep() {
+        if (trace == null)
+            return new ArrayList<>();
+        return trace.getChecked();
+    }
+
+    /**
+     * gets the statistics of the last solve
+     * @return the statistics, empty before the first solve
+     */
+    public SolveStats getStats() {
+        return stats;
+    }
+
+    /**
+     * checks if the solutions are proven to be of minimum cost
+     * @return true if the solutions are minimum, else false if a time limit stopped the covering method
+     */
+    public boolean isOptimal() {
+        return optimal;
+    }
+
+    /**
+     * gets the solutions found by solve(), each a list of terms in binary form
+     * @return array of array lists of terms, one per minimum solution
+     */
+    public ArrayList<String>[] getSolutions() {
+        return solution;
+    }
+
+    /**
+     * gets the number of solutions found by solve()
+     * @return the number of minimum solutions
+     */
+    public int getNumSolutions() {
+        return solution.length;
+    }
+
+    /**
+     * gets the number of variables of the function, which is the length of every term in binary form
+     * @return the number of variables
+     */
+    public int getNumVariables() {
+        return maxLength;
+    }
+
     /**
      * converts the minterms String input and checks if valid
      * @param s a valid String containing the minterms to be solved
      * @return int array with minterms parsed from String input
+     * @throws IllegalArgumentException if the String contains invalid or duplicate minterms
      */
     private int[] convertString(String s) {
         // replace commas with spaces, if commas were used
@@ -136,26 +568,20 @@ public class QuineMcCluskey {
         String[] a = s.trim().split(" +");
         int[] t = new int[a.length]; // array of minterms
 
-        // parse strings in the array to integers, throw error message if not digits, strings, or commas
+        // parse strings in the array to integers, throw error message if not non-negative integers
         for (int i = 0; i < t.length; i++) {
             try {
-                // until it reaches outside bounds
-                int temp = Integer.parseInt(a[i]);
-                t[i] = temp;
-            } catch (Exception e) {
-                if (s.matches("[\\d,\\s]+"))
-                    JOptionPane.showMessageDialog(null, "Invalid input. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+                t[i] = Integer.parseInt(a[i]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid input. Please try again.");
             }
+            if (t[i] < 0)
+                throw new IllegalArgumentException("Invalid input. Please try again.");
         }
 
-        // check for duplicates using a hash set. if no duplicates add to hash set, repeat until end of array
-        HashSet<Integer> dup = new HashSet<>();
-        for (int i = 0; i < t.length; i++) {
-            if (dup.contains(t[i])) {
-                JOptionPane.showMessageDialog(null, "Duplicates encountered. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
-            dup.add(t[i]);
-        }
+        // check for duplicates using a hash set
+        if (!checkRepeats(t))
+            throw new IllegalArgumentException("Duplicates encountered. Please try again.");
 
         return t;
     }
@@ -183,71 +609,245 @@ public class QuineMcCluskey {
         return groups;
     }
 
+    /**
+     * gets the minterms of the function as an array
+     * @return the sorted minterms
+     */
+    private int[] mintermValues() {
+        int[] values = new int[minterms.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = minterms.get(i);
+        }
+        return values;
+    }
+
     /**
      * first stage of solution using Quine-McCluskey method
      * main solver method of the class to be called
      */
     public void solve(){
+        solve(new Budget(deadline, memoryBudget));
+    }
+
+    /**
+     * solves the function within a budget, recording the statistics of the solve
+     * @param budget the budget of the solve
+     * @throws IllegalStateException if verified and a solution is not equivalent to the function
+     */
+    void solve(Budget budget) {
+        this.budget = budget;
+        stats = new SolveStats();
+        trace = null;
+        started = System.nanoTime();
+        optimal = true;
+
+        // the second stage removes minterms as it covers them, so the on-set is kept for the verifier first
+        int[] onSet = verify ? mintermValues() : null;
+
+        solveFirst();
+
+        if (verify && maxLength <= CoverVerifier.MAX_VARIABLES) {
+            long verifying = System.nanoTime();
+            String failure = new CoverVerifier(onSet, maxLength).verify(solution);
+            stats.verifyNanos = System.nanoTime() - verifying;
+            if (failure != null)
+                throw new IllegalStateException("Verification failed: " + failure);
+            stats.verified = true;
+        }
+
+        // poll once more so that a limit reached inside a stage without polling is recorded
+        budget.exceeded();
+        stats.totalNanos = System.nanoTime() - started;
+        stats.timeUp = budget.isTimeUp();
+        stats.memoryUp = budget.isMemoryUp();
+        stats.optimal = optimal;
+    }
+
+    /**
+     * first stage of the solve, generating the implicants of the function unless a shortcut applies
+     */
+    private void solveFirst() {
+        // nothing to tabulate, the function is constant
+        if (terms.length == 0) {
+            finalTerms = new ArrayList<>();
+            solution = new ArrayList[1];
+            solution[0] = primeImplicants;
+            return;
+        }
+
+        // small functions solved the default way are answered from the precomputed table
+        if (lookupTable && !tracing && maxLength <= MinimumTable.VARIABLES
+                && primeGeneration == PrimeGeneration.TABULATION && covering == Covering.PARALLEL_PETRICK && costModel == CostModel.TERMS) {
+            MinimumTable table = MinimumTable.get();
+            if (table != null) {
+                int function = 0;
+                for (int i = 0; i < minterms.size(); i++) {
+                    function |= 1 << minterms.get(i);
+                }
+                finalTerms = new ArrayList<>();
+                solution = table.lookup(function, maxLength);
+                return;
+            }
+        }
+
+        // solve through smaller functions when some variables are useless or complement the function
+        if (supportReduction && !tracing && covering != Covering.PETRICK
+                && (costModel == CostModel.TERMS || costModel == CostModel.TERMS_THEN_LITERALS)
+                && reduceSupport())
+            return;
+
+        // generate the prime implicants from decision diagrams, enumerating them only for the second stage
+        if (primeGeneration == PrimeGeneration.IMPLICIT) {
+            try {
+                finalTerms = new ImplicitPrimes(mintermValues(), maxLength, budget).enumerate();
+            } catch (Budget.ExceededException e) {
+                // the minterms are implicants that cost nothing to build
+                finalTerms = new ArrayList<>(Arrays.asList(terms));
+                stats.truncated = true;
+                optimal = false;
+            }
+            coverImplicants();
+            return;
+        }
+
+        // tabulate on disk, reading back only the prime implicants for the second stage
+        if (primeGeneration == PrimeGeneration.OUT_OF_CORE) {
+            try (OutOfCoreTabulation t = new OutOfCoreTabulation(mintermValues(), maxLength, spillDirectory,
+                    spillBuffer)) {
+                t.run(budget);
+                finalTerms = t.enumerate();
+                if (t.isTruncated()) {
+                    stats.truncated = true;
+                    optimal = false;
+                }
+            } catch (java.io.IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+            coverImplicants();
+            return;
+        }
+
         // keep track of the unchecked terms
         ArrayList<Term> unchecked = new ArrayList<>();
 
+        // find the merges of a term from the bitmap of the on-set, unless the steps are traced by position
+        CoverVerifier onSet = null;
+        if (neighborSearch && !tracing && maxLength <= CoverVerifier.MAX_VARIABLES)
+            onSet = new CoverVerifier(mintermValues(), maxLength);
+
+        // take the minterms from the shared store so that their binary forms are built once per job
+        if (cubeStore != null) {
+            for (int i = 0; i < terms.length; i++) {
+                terms[i] = cubeStore.intern(terms[i]);
+            }
+        }
+
         // gather the first list of grouped terms
         ArrayList<Term>[] list = group(this.terms);
 
         // store resulting terms of each iteration
         ArrayList<Term>[] result;
 
-        // add the current list to the firstStep array list array
-        firstStep.add(list);
+        // record the merges of every level from the first list when traced
+        trace = tracing ? new StepTrace(list) : null;
+        int level = 0;
 
         // loop as long as result array is not empty and length > 1
         boolean insert = true;
+        boolean truncated = false;
+
+        // packed groups and matches of the merge kernel, reused by every level since levels only get shorter
+        int[][] values = new int[list.length][];
+        int[][] masks = new int[list.length][];
+        int[] matches = new int[0];
 
         do {
+            // merge each term with its neighbors in the on-set, keeping the terms that have none
+            if (onSet != null) {
+                ArrayList<Term> primes = new ArrayList<>();
+                result = mergeNeighbors(list, onSet, primes);
+                if (result == null) {
+                    truncated = true;
+                    break;
+                }
+
+                insert = false;
+                for (int i = 0; i < result.length; i++) {
+                    insert |= !result[i].isEmpty();
+                }
+                if (insert) {
+                    unchecked.addAll(primes);
+                    list = result;
+                    level++;
+                }
+                continue;
+            }
+
             // store checked terms next
-            HashSet<String> checked= new HashSet<>();
+            HashSet<Long> checked= new HashSet<>();
 
             // set result array to a new empty array
             result = new ArrayList[list.length - 1];
 
-            ArrayList<String> temp;
+            HashSet<Term> temp;
             insert = false;
+            int mark = trace == null ? 0 : trace.mark();
+
+            // pack the values and masks of each group so that the merge kernel compares whole groups
+            int largest = packGroups(list, values, masks);
+            if (matches.length < largest)
+                matches = new int[largest];
 
             // loop over
             for (int i = 0; i < list.length - 1; i++){
                 result[i] = new ArrayList<>();
                 // keep track of added terms in results to avoid duplicates
-                temp = new ArrayList<>();
+                temp = new HashSet<>();
 
                 // loop over each element in first group with all elements of second
-                for (int j = 0; j < list[i].size(); j++){
-                    // loop over each element in the second group
-                    for (int k = 0; k < list[i + 1].size(); k++){
-                        // check first if is a valid combination
-                        if (checkValidity(list[i].get(j), list[i + 1].get(k))) {
-                            // append the terms to be checked
-                            checked.add(list[i].get(j).getString());
-                            checked.add(list[i+1].get(k).getString());
-
-                            Term n = new Term(list[i].get(j), list[i+1].get(k));
-
-                            // check if resulting term is already in the results, don't add them
-                            if (!temp.contains(n.getString())) {
-                                result[i].add(n);
-                                insert = true;
-                            }
-                            temp.add(n.getString());
+                for (int j = 0; j < list[i].size() && !truncated; j++){
+                    // once the budget runs out, the terms of the current level are kept as they are
+                    if (budget.exceeded()) {
+                        truncated = true;
+                        break;
+                    }
 
+                    // loop over each valid combination with an element in the second group
+                    int count = mergeKernel.match(values[i][j], masks[i][j], values[i + 1], masks[i + 1],
+                            list[i + 1].size(), matches);
+                    for (int m = 0; m < count; m++){
+                        int k = matches[m];
+
+                        // append the terms to be checked
+                        checked.add(list[i].get(j).getPacked());
+                        checked.add(list[i+1].get(k).getPacked());
+                        if (trace != null)
+                            trace.merge(level, i, j, k);
+
+                        Term n = cubeStore == null ? new Term(list[i].get(j), list[i+1].get(k))
+                                : cubeStore.merge(list[i].get(j), list[i+1].get(k));
+
+                        // check if resulting term is already in the results, don't add them
+                        if (temp.add(n)) {
+                            result[i].add(n);
+                            insert = true;
                         }
                     }
                 }
             }
 
+            // every term of an unfinished level is an implicant, so the current level is kept instead
+            if (truncated) {
+                if (trace != null)
+                    trace.reset(mark);
+                break;
+            }
+
             // if result is not empty and new terms generated, update unchecked
             if (insert) {
                 for (int i = 0; i < list.length; i++) {
                     for (int j = 0; j < list[i].size(); j++) {
-                        if (!checked.contains(list[i].get(j).getString())) {
+                        if (!checked.contains(list[i].get(j).getPacked())) {
                             // add the unchecked terms to the unchecked array list
                             unchecked.add(list[i].get(j));
                         }
@@ -255,9 +855,8 @@ public class QuineMcCluskey {
                 }
                 list = result;
 
-                // add result and checked to firstStep and checkedFirstStep array lists
-                firstStep.add(list);
-                checkedFirstStep.add(checked);
+                // the merges of the new level are already in the trace
+                level++;
             }
         } while (insert && list.length > 1);
 
@@ -272,7 +871,255 @@ public class QuineMcCluskey {
             finalTerms.add(unchecked.get(i));
         }
 
+        stats.levels = level + 1;
+        if (truncated) {
+            stats.truncated = true;
+            optimal = false;
+        }
+        coverImplicants();
+    }
+
+    /**
+     * packs the values and masks of each group of a level for the merge kernel, reusing the arrays
+     * of an earlier level that are large enough so that packing a level allocates nothing once the
+     * arrays have grown
+     * @param list array of the groups of the level
+     * @param values array receiving the values of each group, at least as long as list
+     * @param masks array receiving the masks of each group, at least as long as list
+     * @return the number of terms of the largest group
+     */
+    static int packGroups(ArrayList<Term>[] list, int[][] values, int[][] masks) {
+        int largest = 0;
+        for (int i = 0; i < list.length; i++) {
+            int size = list[i].size();
+            if (values[i] == null || values[i].length < size) {
+                values[i] = new int[size];
+                masks[i] = new int[size];
+            }
+            for (int k = 0; k < size; k++) {
+                values[i][k] = list[i].get(k).getValue();
+                masks[i][k] = list[i].get(k).getMask();
+            }
+            largest = Math.max(largest, size);
+        }
+        return largest;
+    }
+
+    /**
+     * merges every term of a level with its neighbors, the terms differing from it in a single
+     * position that is not a '-'. A neighbor is a term of the same level exactly when its minterms
+     * are all in the on-set, which the bitmap tells without comparing the term against a whole group.
+     * A merged term is built only by the term whose highest '-' it adds, so that each one is built
+     * once, and a term without neighbors is prime.
+     * @param list array of the groups of the level, each holding the terms with as many ones
+     * @param onSet the bitmap of the on-set
+     * @param primes array list receiving the terms of the level without neighbors
+     * @return array of the groups of the next level, else null if the budget ran out
+     */
+    private ArrayList<Term>[] mergeNeighbors(ArrayList<Term>[] list, CoverVerifier onSet, ArrayList<Term> primes) {
+        ArrayList<Term>[] result = new ArrayList[list.length - 1];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new ArrayList<>();
+        }
+
+        for (int i = 0; i < list.length; i++) {
+            for (int j = 0; j < list[i].size(); j++) {
+                // once the budget runs out, the terms of the current level are kept as they are
+                if (budget.exceeded())
+                    return null;
+
+                Term t = list[i].get(j);
+                int value = t.getValue();
+                int mask = t.getMask();
+                int free = ~mask & ((1 << t.getLength()) - 1);
+                boolean prime = true;
+                for (; free != 0; free &= free - 1) {
+                    int bit = free & -free;
+                    if (!onSet.covers(value ^ bit, mask))
+                        continue;
+
+                    prime = false;
+                    // the neighbor above adds the position as a '-', built here only if it is the highest
+                    if ((value & bit) == 0 && bit > mask) {
+                        result[i].add(cubeStore == null ? new Term(value, mask | bit, t.getLength())
+                                : cubeStore.merge(t, bit));
+                    }
+                }
+                if (prime)
+                    primes.add(t);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * records the statistics of the implicants and covers them with the second stage
+     */
+    private void coverImplicants() {
+        long covering = System.nanoTime();
+        stats.primeNanos = covering - started;
+        stats.implicants = finalTerms.size();
         solveSecond();
+        stats.coverNanos = System.nanoTime() - covering;
+    }
+
+    /**
+     * solves the function through smaller functions when it does not depend on some variables, or when
+     * flipping a variable complements it, so that f = x'g + xg' is solved as g and its complement
+     * @return true if the function was solved through smaller functions, else false
+     */
+    private boolean reduceSupport() {
+        int[] values = mintermValues();
+
+        // find the variables whose cofactors are equal, and the first whose cofactors are complementary
+        int independent = 0;
+        int complementary = -1;
+        for (int b = 0; b < maxLength; b++) {
+            // once the budget runs out, the function is tabulated as it is and covered at once
+            if (budget.exceeded())
+                return false;
+            int bit = 1 << b;
+            boolean equal = true;
+            boolean opposite = values.length == 1 << (maxLength - 1);
+            for (int i = 0; i < values.length && (equal || opposite); i++) {
+                boolean partner = Arrays.binarySearch(values, values[i] ^ bit) >= 0;
+                equal &= partner;
+                opposite &= !partner;
+            }
+            if (equal)
+                independent |= bit;
+            else if (opposite && complementary < 0)
+                complementary = b;
+        }
+
+        finalTerms = new ArrayList<>();
+        if (independent == (1 << maxLength) - 1) {
+            // a function of no variables that is not empty is always true
+            solution = new ArrayList[1];
+            solution[0] = new ArrayList<>();
+            solution[0].add("-".repeat(maxLength));
+            return true;
+        }
+
+        if (independent != 0) {
+            // solve the function without the useless variables, which become '-' in every term
+            int length = maxLength - Integer.bitCount(independent);
+            TreeSet<Integer> reduced = new TreeSet<>();
+            for (int i = 0; i < values.length; i++) {
+                reduced.add(removeBits(values[i], independent));
+            }
+            int[] sub = new int[reduced.size()];
+            int k = 0;
+            for (int v : reduced) {
+                sub[k++] = v;
+            }
+
+            ArrayList<String>[] subSolution = solveReduced(sub, length);
+            solution = new ArrayList[subSolution.length];
+            for (int s = 0; s < subSolution.length; s++) {
+                solution[s] = new ArrayList<>();
+                for (String term : subSolution[s]) {
+                    solution[s].add(insertBits(term, independent, '-'));
+                }
+            }
+            return true;
+        }
+
+        if (complementary >= 0 && maxLength > 1) {
+            // every implicant has a literal of x, so the minimum covers are x' min(g) + x min(g')
+            int bit = 1 << complementary;
+            int[] g = new int[values.length];
+            int k = 0;
+            for (int i = 0; i < values.length; i++) {
+                if ((values[i] & bit) == 0)
+                    g[k++] = removeBits(values[i], bit);
+            }
+            g = Arrays.copyOf(g, k);
+
+            ArrayList<String>[] low = solveReduced(g, maxLength - 1);
+            ArrayList<String>[] high = solveReduced(complement(g, maxLength - 1), maxLength - 1);
+            solution = new ArrayList[low.length * high.length];
+            for (int a = 0; a < low.length; a++) {
+                for (int b = 0; b < high.length; b++) {
+                    ArrayList<String> product = new ArrayList<>();
+                    for (String term : low[a]) {
+                        product.add(insertBits(term, bit, '0'));
+                    }
+                    for (String term : high[b]) {
+                        product.add(insertBits(term, bit, '1'));
+                    }
+                    solution[a * high.length + b] = product;
+                }
+            }
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * solves a smaller function with the same configuration as this object
+     * @param values the sorted minterms of the smaller function
+     * @param length the number of variables of the smaller function
+     * @return array of the minimum solutions of the smaller function
+     */
+    private ArrayList<String>[] solveReduced(int[] values, int length) {
+        QuineMcCluskey sub = new QuineMcCluskey(values, length);
+        sub.primeGeneration = primeGeneration;
+        sub.covering = covering;
+        sub.costModel = costModel;
+        sub.timeLimit = timeLimit;
+        sub.lookupTable = lookupTable;
+        sub.spillDirectory = spillDirectory;
+        sub.spillBuffer = spillBuffer;
+        sub.cubeStore = cubeStore;
+        sub.neighborSearch = neighborSearch;
+        sub.mergeKernel = mergeKernel;
+        sub.solve(budget);
+        optimal &= sub.optimal;
+        stats.implicants += sub.stats.implicants;
+        stats.components += sub.stats.components;
+        stats.levels = Math.max(stats.levels, sub.stats.levels);
+        stats.coverCost += sub.stats.coverCost;
+        stats.lowerBound += sub.stats.lowerBound;
+        stats.truncated |= sub.stats.truncated;
+        stats.degraded |= sub.stats.degraded;
+        return sub.solution;
+    }
+
+    /**
+     * removes bits from a value, shifting the higher bits down
+     * @param value the value
+     * @param bits the bits to be removed
+     * @return the value without the bits
+     */
+    private static int removeBits(int value, int bits) {
+        int result = 0;
+        int k = 0;
+        for (int b = 0; b < 32; b++) {
+            if ((bits >>> b & 1) == 0)
+                result |= (value >>> b & 1) << k++;
+        }
+        return result;
+    }
+
+    /**
+     * inserts a character in a term in binary form at the positions of removed bits
+     * @param term the term in binary form without the removed bits
+     * @param bits the removed bits
+     * @param c the character of the removed bits
+     * @return the term in binary form with one position per variable of this object
+     */
+    private String insertBits(String term, int bits, char c) {
+        StringBuilder result = new StringBuilder(maxLength);
+        int k = 0;
+        for (int i = maxLength - 1; i >= 0; i--) {
+            if ((bits >>> i & 1) == 1)
+                result.append(c);
+            else
+                result.append(term.charAt(k++));
+        }
+        return result.toString();
     }
 
     /**
@@ -280,6 +1127,12 @@ public class QuineMcCluskey {
      * recursively calls itself if there are still remaining minterms
      */
     public void solveSecond(){
+        // once the budget runs out, cover the remaining minterms at once
+        if (budget.exceeded()) {
+            simplify();
+            return;
+        }
+
         // identify prime implicants, first and check for row dominance then column dominance
         if (!identifyPrimeImplicants()) {
             if (!rowDominance()) {
@@ -318,35 +1171,6 @@ public class QuineMcCluskey {
         return true;
     }
 
-    /**
-     * check if two terms are valid for grouping
-     * @param term1 the first term to be checked
-     * @param term2 the second term to be checked
-     * @return true if grouping is possible, else false if not
-     */
-    boolean checkValidity (Term term1, Term term2) {
-        // check if both terms have the same length
-        if (term1.getString().length() != term2.getString().length())
-            return false;
-
-        // count differing positions, return false immediately if '-' is paired with 0 or 1
-        int k = 0;
-        for (int i = 0; i < term1.getString().length(); i++) {
-            if (term1.getString().charAt(i) == '-' && term2.getString().charAt(i) != '-')
-                return false;
-            else if (term1.getString().charAt(i) != '-' && term2.getString().charAt(i) == '-')
-                return false;
-            else if (term1.getString().charAt(i) != term2.getString().charAt(i))
-                k++;
-        }
-
-        // only return true if there is exactly one differing position from both terms
-        if (k != 1)
-            return false;
-        else
-            return true;
-    }
-
     /**
      * check if two terms have all its numbers present in another term
      * @param term1 the first term to be the basis of checking
@@ -355,19 +1179,12 @@ public class QuineMcCluskey {
      */
     boolean contains(Term term1, Term term2) {
         // return false if the number of minterms grouped in term1 is less than or equal than that of term2's
-        if (term1.getNums().size() <= term2.getNums().size()) {
+        if (Integer.bitCount(term1.getMask()) <= Integer.bitCount(term2.getMask())) {
             return false;
         }
 
-        // else, gather all numbers associated with term1 and term2 in array lists
-        ArrayList<Integer> a = term1.getNums();
-        ArrayList<Integer> b = term2.getNums();
-
-        // return true if all numbers in b are in a, else false
-        if (a.containsAll(b))
-            return true;
-        else
-            return false;
+        // return true if all numbers in term2 are in term1, else false
+        return term1.covers(term2);
     }
 
     /**
@@ -375,13 +1192,47 @@ public class QuineMcCluskey {
      * @see <a href="https://www.allaboutcircuits.com/technical-articles/prime-implicant-simplification-using-petricks-method/">Petrick's method</a>
      */
     void simplify(){
-        HashSet<String>[] temp = new HashSet[minterms.size()];
+        // once the budget runs out, cover the remaining minterms without building the chart
+        if (budget.exceeded()) {
+            fallbackCover();
+            return;
+        }
+
+        BitSet[] clauses = new BitSet[minterms.size()];
 
-        //construct temp array containing sets of associated minterms in finalTerms
+        // index the remaining minterms so that each term only visits the minterms it covers
+        HashMap<Integer, Integer> rows = new HashMap<>();
         for (int i = 0; i < minterms.size(); i++) {
-            temp[i] = new HashSet<>();
-            for (int j = 0; j < finalTerms.size(); j++) {
-                if (finalTerms.get(j).getNums().contains(minterms.get(i))) {
+            rows.put(minterms.get(i), i);
+            clauses[i] = new BitSet();
+        }
+        for (int j = 0; j < finalTerms.size(); j++) {
+            if (budget.exceeded()) {
+                fallbackCover();
+                return;
+            }
+            Term term = finalTerms.get(j);
+            if (1L << Integer.bitCount(term.getMask()) > minterms.size()) {
+                // a term covering more numbers than there are minterms left is checked against each one
+                for (int i = 0; i < minterms.size(); i++) {
+                    if (term.covers(minterms.get(i)))
+                        clauses[i].set(j);
+                }
+            } else {
+                for (int m : term.getNums()) {
+                    Integer i = rows.get(m);
+                    if (i != null)
+                        clauses[i].set(j);
+                }
+            }
+        }
+
+        //construct temp array containing sets of associated minterms in finalTerms, only needed by the reference method
+        HashSet<String>[] temp = new HashSet[minterms.size()];
+        if (covering == Covering.PETRICK) {
+            for (int i = 0; i < minterms.size(); i++) {
+                temp[i] = new HashSet<>();
+                for (int j = clauses[i].nextSetBit(0); j >= 0; j = clauses[i].nextSetBit(j + 1)) {
                     char t = (char) ('a' + j);
                     simplified.add(t + ": " + finalTerms.get(j).getString());
                     temp[i].add(t + "");
@@ -389,38 +1240,253 @@ public class QuineMcCluskey {
             }
         }
 
-        // multiply sets in temp for simplification
-        HashSet<String> finalResult = multiply(temp, 0);
+        // weigh each term in finalTerms with the cost model, and count its literals for the heuristics
+        long[] weights = new long[finalTerms.size()];
+        long[] literals = new long[finalTerms.size()];
+        for (int j = 0; j < finalTerms.size(); j++) {
+            weights[j] = costModel.cost(finalTerms.get(j));
+            literals[j] = finalTerms.get(j).getNumLiterals();
+        }
+
+        // gather the minimum cost products as sets of indices in finalTerms
+        ArrayList<BitSet> products;
+        if (covering == Covering.PETRICK) {
+            try {
+                products = minimumProducts(multiply(temp, 0), weights);
 
-        // identify minimum length terms in finalResult and count occurences
-        int min = -1;
-        int count = 0;
-        for (Iterator<String> t = finalResult.iterator(); t.hasNext();) {
-            String m = t.next();
-            if (min == -1 || m.length() < min) {
-                min = m.length();
-                count = 1;
-            } else if (min == m.length()) {
-                count++;
+                // every product was expanded, so the minimum cost is its own lower bound
+                long cost = 0;
+                for (int j = products.get(0).nextSetBit(0); j >= 0; j = products.get(0).nextSetBit(j + 1)) {
+                    cost += weights[j];
+                }
+                stats.coverCost += cost;
+                stats.lowerBound += cost;
+            } catch (Budget.ExceededException e) {
+                fallbackCover();
+                return;
+            }
+        } else {
+            // components of the chart share no terms, so each is covered on its own in parallel
+            Decomposition parts;
+            try {
+                parts = new Decomposition(clauses, finalTerms.size(), budget);
+            } catch (Budget.ExceededException e) {
+                fallbackCover();
+                return;
+            }
+            ArrayList<BitSet>[] covers = new ArrayList[parts.size()];
+            boolean[] proven = new boolean[parts.size()];
+            boolean[] greedy = new boolean[parts.size()];
+            long[] costs = new long[parts.size()];
+            long[] bounds = new long[parts.size()];
+            java.util.stream.IntStream.range(0, parts.size()).parallel().forEach(c -> {
+                BitSet[] partClauses = parts.getClauses(c);
+                long[] partWeights = parts.getWeights(c, weights);
+                ArrayList<BitSet> partProducts;
+                if (covering == Covering.EXACT) {
+                    // the branch and bound stops at whichever comes first of its time limit and the deadline
+                    long limit = timeLimit;
+                    long left = budget.remainingMillis();
+                    if (left > 0 && (limit == 0 || left < limit))
+                        limit = left;
+                    ExactCover exact = new ExactCover(partClauses, partWeights, limit);
+                    partProducts = new ArrayList<>();
+                    partProducts.add(exact.solve());
+                    proven[c] = exact.isOptimal();
+                    costs[c] = exact.getCost();
+                    bounds[c] = proven[c] ? costs[c] : exact.getLowerBound();
+                } else if (covering == Covering.GREEDY || covering == Covering.LOCAL_SEARCH) {
+                    HeuristicCover heuristic = new HeuristicCover(partClauses, partWeights,
+                            parts.getWeights(c, literals));
+                    partProducts = new ArrayList<>();
+                    partProducts.add(covering == Covering.GREEDY ? heuristic.greedy(budget) : heuristic.localSearch(budget));
+                    costs[c] = heuristic.getCost();
+                    bounds[c] = heuristic.getLowerBound();
+                    proven[c] = costs[c] == bounds[c];
+                } else {
+                    Petrick petrick = new Petrick(partClauses, partWeights, budget);
+                    partProducts = petrick.solve();
+                    proven[c] = !petrick.isInterrupted();
+                    greedy[c] = petrick.isInterrupted();
+                    costs[c] = petrick.cost(partProducts.get(0));
+                    bounds[c] = proven[c] ? costs[c] : ExactCover.lowerBound(partClauses, partWeights);
+                }
+                covers[c] = parts.toChart(c, partProducts);
+            });
+
+            products = Decomposition.combine(covers);
+            stats.components = parts.size();
+            for (int c = 0; c < proven.length; c++) {
+                optimal &= proven[c];
+                stats.degraded |= greedy[c];
+                stats.coverCost += costs[c];
+                stats.lowerBound += bounds[c];
             }
         }
 
         // add the simplified minimum terms to solutions
-        solution = new ArrayList[count];
-        int k = 0;
+        solution = new ArrayList[products.size()];
+        for (int k = 0; k < products.size(); k++) {
+            BitSet c = products.get(k);
+            solution[k] = new ArrayList<>();
+            for (int i = c.nextSetBit(0); i >= 0; i = c.nextSetBit(i + 1)) {
+                solution[k].add(finalTerms.get(i).getString());
+            }
+            for (int i = 0; i < primeImplicants.size(); i++) {
+                solution[k].add(primeImplicants.get(i));
+            }
+        }
+    }
+
+    /**
+     * covers the remaining minterms once the budget has run out, without building the chart: the
+     * terms are taken cheapest first when they cover a minterm not covered yet, then the costliest
+     * terms whose minterms are all covered by other terms are dropped. The cover is not proven
+     * minimum and has no lower bound. Once the time kept for it runs out too, each minterm still
+     * uncovered is covered by itself, so that the solve ends by its deadline.
+     */
+    private void fallbackCover() {
+        // sort the remaining minterms, counting the chosen terms covering each
+        int[] values = new int[minterms.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = minterms.get(i);
+        }
+        Arrays.sort(values);
+        int[] count = new int[values.length];
+        int left = values.length;
+
+        Term[] order = finalTerms.toArray(new Term[0]);
+        Arrays.sort(order, Comparator.comparingLong((Term t) -> costModel.cost(t)).thenComparingInt(Term::getNumLiterals));
+
+        // take each term covering a minterm not covered yet
+        ArrayList<int[]> chosen = new ArrayList<>();
+        ArrayList<Term> chosenTerms = new ArrayList<>();
+        for (int k = 0; k < order.length && left > 0 && !budget.reserveExceeded(); k++) {
+            int[] hit = coveredRows(order[k], values);
+            boolean useful = false;
+            for (int i : hit) {
+                useful |= count[i] == 0;
+            }
+            if (!useful)
+                continue;
+            for (int i : hit) {
+                if (count[i]++ == 0)
+                    left--;
+            }
+            chosen.add(hit);
+            chosenTerms.add(order[k]);
+        }
+
+        // drop the costliest terms whose minterms are all covered by other terms
+        boolean[] dropped = new boolean[chosen.size()];
+        for (int k = chosen.size() - 1; k >= 0 && left == 0 && !budget.reserveExceeded(); k--) {
+            boolean redundant = true;
+            for (int i : chosen.get(k)) {
+                redundant &= count[i] > 1;
+            }
+            if (redundant) {
+                dropped[k] = true;
+                for (int i : chosen.get(k)) {
+                    count[i]--;
+                }
+            }
+        }
+
+        solution = new ArrayList[1];
+        solution[0] = new ArrayList<>();
+        for (int k = 0; k < chosenTerms.size(); k++) {
+            if (!dropped[k]) {
+                solution[0].add(chosenTerms.get(k).getString());
+                stats.coverCost += costModel.cost(chosenTerms.get(k));
+            }
+        }
+
+        // the minterms left once the time ran out are covered by themselves
+        for (int i = 0; i < count.length; i++) {
+            if (count[i] == 0) {
+                Term minterm = new Term(values[i], 0, maxLength);
+                solution[0].add(minterm.getString());
+                stats.coverCost += costModel.cost(minterm);
+            }
+        }
+        solution[0].addAll(primeImplicants);
+
+        stats.degraded = true;
+        optimal = false;
+    }
+
+    /**
+     * finds the remaining minterms covered by a term
+     * @param term the term
+     * @param values array of the remaining minterms in ascending order
+     * @return array of the positions in values of the minterms covered by the term
+     */
+    private static int[] coveredRows(Term term, int[] values) {
+        int[] hit = new int[(int) Math.min(values.length, 1L << Integer.bitCount(term.getMask()))];
+        int n = 0;
+        if (1L << Integer.bitCount(term.getMask()) > values.length) {
+            // a term covering more numbers than there are minterms left is checked against each one
+            for (int i = 0; i < values.length; i++) {
+                if (term.covers(values[i]))
+                    hit[n++] = i;
+            }
+        } else {
+            // enumerate every subset of the '-' positions
+            int mask = term.getMask();
+            int sub = 0;
+            do {
+                int i = Arrays.binarySearch(values, term.getValue() | sub);
+                if (i >= 0)
+                    hit[n++] = i;
+                sub = (sub - mask) & mask;
+            } while (sub != 0);
+        }
+        return n == hit.length ? hit : Arrays.copyOf(hit, n);
+    }
+
+    /**
+     * identifies the minimum cost terms of a product computed by multiply()
+     * @param finalResult a Hash set of products where each character is a term in finalTerms
+     * @param weights array of the costs of each term in finalTerms
+     * @return array list of the minimum cost products as sets of indices in finalTerms
+     */
+    ArrayList<BitSet> minimumProducts(HashSet<String> finalResult, long[] weights) {
+        // identify minimum cost terms in finalResult
+        long min = -1;
+        for (Iterator<String> t = finalResult.iterator(); t.hasNext();) {
+            long m = cost(t.next(), weights);
+            if (min == -1 || m < min) {
+                min = m;
+            }
+        }
+
+        // convert each minimum cost term to its indices in finalTerms
+        ArrayList<BitSet> products = new ArrayList<>();
         for (Iterator<String> t = finalResult.iterator(); t.hasNext();) {
             String c = t.next();
-            if (c.length() == min) {
-                solution[k] = new ArrayList<>();
+            if (cost(c, weights) == min) {
+                BitSet product = new BitSet();
                 for (int i = 0; i < c.length(); i++) {
-                    solution[k].add(finalTerms.get((int) c.charAt(i) - 'a').getString());
-                }
-                for (int i = 0; i < primeImplicants.size(); i++) {
-                    solution[k].add(primeImplicants.get(i));
+                    product.set((int) c.charAt(i) - 'a');
                 }
-                k++;
+                products.add(product);
             }
         }
+        return products;
+    }
+
+    /**
+     * computes the cost of a product computed by multiply()
+     * @param product a String where each character is a term in finalTerms
+     * @param weights array of the costs of each term in finalTerms
+     * @return the sum of the costs of every term in the product
+     */
+    long cost(String product, long[] weights) {
+        long sum = 0;
+        for (int i = 0; i < product.length(); i++) {
+            sum += weights[(int) product.charAt(i) - 'a'];
+        }
+        return sum;
     }
 
     /**
@@ -428,6 +1494,7 @@ public class QuineMcCluskey {
      * @param p an array of Hash sets containing elements to be multiplied
      * @param k the index pointing to the first set to be multiplied
      * @return a Hash set resulting from the multiplication of adjacent sets in a Hash set array
+     * @throws Budget.ExceededException if the budget of the solve runs out
      */
     HashSet<String> multiply(HashSet<String>[] p, int k){
         // check if k is greater than or equal to p.length - 1
@@ -439,6 +1506,7 @@ public class QuineMcCluskey {
 
         // iterate through elements of p[k]
         for (Iterator<String> t = p[k].iterator(); t.hasNext();) {
+            budget.check();
             String temp2 = t.next();
             // iterate through elements of p[k +1]
             for (Iterator<String> g = p[k + 1].iterator(); g.hasNext();) {
@@ -485,11 +1553,13 @@ public class QuineMcCluskey {
         // initialize columns array to store indeces of final terms matching each minterm
         ArrayList<Integer>[] columns = new ArrayList[minterms.size()];
 
-        // fill columns with indeces of final terms that match each minterm
+        // fill columns with indeces of final terms that match each minterm, giving up once the budget runs out
         for (int i = 0; i < minterms.size(); i++) {
+            if (budget.exceeded())
+                return false;
             columns[i] = new ArrayList();
             for (int j = 0; j < finalTerms.size(); j++) {
-                if (finalTerms.get(j).getNums().contains(minterms.get(i))) {
+                if (finalTerms.get(j).covers(minterms.get(i))) {
                     columns[i].add(j);
                 }
             }
@@ -502,11 +1572,11 @@ public class QuineMcCluskey {
                 isPrimeImplicant = true;
 
                 // gather numbers of associated minterms with the prime implicant
-                ArrayList<Integer> del = finalTerms.get(columns[i].get(0)).getNums();
+                Term del = finalTerms.get(columns[i].get(0));
 
                 // remove associated minterms from object's array of minterms
                 for (int j = 0; j < minterms.size(); j++) {
-                    if (del.contains(minterms.get(j))) {
+                    if (del.covers(minterms.get(j))) {
                         minterms.remove(j);
                         j--;
                     }
@@ -532,17 +1602,19 @@ public class QuineMcCluskey {
         // create a table
         ArrayList<ArrayList<Integer>> columns = new ArrayList<>();
 
-        // fill columns with indeces of final terms that match each minterm
+        // fill columns with indeces of final terms that match each minterm, giving up once the budget runs out
         for (int i = 0; i < minterms.size(); i++){
+            if (budget.exceeded())
+                return false;
             columns.add(new ArrayList<Integer>());
             for (int j = 0; j < finalTerms.size(); j++){
-                if (finalTerms.get(j).getNums().contains(minterms.get(i)))
+                if (finalTerms.get(j).covers(minterms.get(i)))
                     columns.get(i).add(j);
             }
         }
 
-        // identify dominating columns, where a column has its all its checks present in the other dominating columns, and remove them
-        for (int i = 0; i < columns.size(); i++) {
+        // identify dominating columns, where a column has its all its checks present in the other dominating columns, and remove them until the budget runs out
+        for (int i = 0; i < columns.size() && !budget.exceeded(); i++) {
             for (int j = i + 1; j < columns.size(); j++) {
                 if (columns.get(j).containsAll(columns.get(i)) && columns.get(j).size() > columns.get(i).size()) {
                     columns.remove(j);
@@ -568,8 +1640,8 @@ public class QuineMcCluskey {
     private boolean rowDominance(){
         boolean flag = false;
 
-        // identify dominating rows, where a row has all its checks present in the other dominating columns, and remove them
-        for (int i = 0; i < finalTerms.size() - 1; i++) {
+        // identify dominating rows, where a row has all its checks present in the other dominating columns, and remove them until the budget runs out
+        for (int i = 0; i < finalTerms.size() - 1 && !budget.exceeded(); i++) {
             for (int j = i + 1; j < finalTerms.size(); j++) {
                 if (contains(finalTerms.get(i), finalTerms.get(j))) {
                     finalTerms.remove(j);
@@ -593,6 +1665,41 @@ public class QuineMcCluskey {
      */
     String toStandardForm(String s) {
         StringBuilder r = new StringBuilder();
+        appendProduct(r, s, null);
+        return r.toString();
+    }
+
+    /**
+     * converts a term of the off-set in binary form to a maxterm clause
+     * @param s a term in binary form
+     * @return the String of the clause in its standard form
+     */
+    String toMaxtermForm(String s) {
+        StringBuilder r = new StringBuilder();
+        appendClause(r, s, null);
+        return r.toString();
+    }
+
+    /**
+     * gets the name of a variable
+     * @param i the position of the variable, starting from 'A'
+     * @param variables list of variables that contains corresponding variable names, null for letters
+     * @return the name entered by the user for the first ten variables, else the letter of the variable
+     */
+    static String variable(int i, String[] variables) {
+        if (variables != null && i < RENAMED_VARIABLES)
+            return variables[i];
+        return String.valueOf((char) ('A' + i));
+    }
+
+    /**
+     * appends a term in binary form as a product of literals
+     * @param r the StringBuilder to append to
+     * @param s a term in binary form
+     * @param variables list of variables that contains corresponding variable names, null for letters
+     */
+    private static void appendProduct(StringBuilder r, String s, String[] variables) {
+        int start = r.length();
 
         // i keeps track of variables starting from 'A'
         for (int i = 0; i < s.length(); i++) {
@@ -602,23 +1709,65 @@ public class QuineMcCluskey {
                 continue;
             }
 
-            // unprimed variable if 1
-            else if (s.charAt(i) == '1') {
-                r.append((char) ('A' + i));
-            }
+            r.append(variable(i, variables));
 
             // primed variable if 0
-            else {
-                r.append((char) ('A' + i));
+            if (s.charAt(i) == '0') {
                 r.append('\'');
             }
         }
 
-        // if the resulting string is empty, append 1 to represent a constant
-        if (r.toString().length() == 0) {
+        // if nothing was appended, append 1 to represent a constant
+        if (r.length() == start) {
             r.append("1");
         }
-        return r.toString();
+    }
+
+    /**
+     * appends a term of the off-set in binary form as a maxterm clause
+     * @param r the StringBuilder to append to
+     * @param s a term in binary form
+     * @param variables list of variables that contains corresponding variable names, null for letters
+     */
+    private static void appendClause(StringBuilder r, String s, String[] variables) {
+        boolean empty = true;
+
+        // i keeps track of variables starting from 'A', complementing each literal of the term
+        for (int i = 0; i < s.length(); i++) {
+
+            // ignores '-' and proceeds to next character
+            if (s.charAt(i) == '-') {
+                continue;
+            }
+
+            r.append(empty ? "(" : " + ");
+            empty = false;
+            r.append(variable(i, variables));
+
+            // primed variable if 1
+            if (s.charAt(i) == '1') {
+                r.append('\'');
+            }
+        }
+
+        // if the clause is empty, the whole off-set is covered and the function is 0
+        r.append(empty ? "0" : ")");
+    }
+
+    /**
+     * gets the solutions as arrays of packed terms, each holding its mask in the upper half and its
+     * value in the lower half
+     * @return array of the solutions, each an array of packed terms
+     */
+    public long[][] getCubes() {
+        long[][] cubes = new long[solution.length][];
+        for (int i = 0; i < solution.length; i++) {
+            cubes[i] = new long[solution[i].size()];
+            for (int j = 0; j < cubes[i].length; j++) {
+                cubes[i][j] = Term.pack(solution[i].get(j));
+            }
+        }
+        return cubes;
     }
 
     /**
@@ -635,42 +1784,124 @@ public class QuineMcCluskey {
             else
                 printedAnswer.append("Solution #").append(i+1).append(":").append("\n");
 
-            // convert solution to standard form first, separate sum of products with '+'
-            StringBuilder finalAnswer = new StringBuilder();
-            for (int j = 0; j < solution[i].size(); j++) {
-                finalAnswer.append(toStandardForm(solution[i].get(j)));
-                if (j != solution[i].size() - 1) {
-                    finalAnswer.append(" + ");
+            appendSolution(printedAnswer, i, variables);
+            printedAnswer.append("\n\n");
+        }
+        return printedAnswer.toString();
+    }
+
+    /**
+     * factors every solution into a multi-level expression with fewer literals, in parallel. The terms
+     * of a product of sums are factored as the sum of products of the off-set and then complemented.
+     * @return array of the factored expressions in the order of the solutions
+     */
+    public Expression[] factor() {
+        return factor(getCubes());
+    }
+
+    /**
+     * factors every solution from its packed terms, in parallel
+     * @param cubes array of the solutions as returned by getCubes()
+     * @return array of the factored expressions in the order of the solutions
+     */
+    private Expression[] factor(long[][] cubes) {
+        Expression[] factored = new Expression[cubes.length];
+        java.util.stream.IntStream.range(0, cubes.length).parallel().forEach(i -> {
+            Expression e = Factoring.factor(cubes[i], maxLength);
+            factored[i] = productOfSums ? e.complement() : e;
+        });
+        return factored;
+    }
+
+    /**
+     * build a String for the factored solutions to be presented to the user, with the literals saved
+     * @param variables list of variables that contains corresponding variable names
+     * @return the String build-up of the factored solutions
+     */
+    public String printFactored(String[] variables) {
+        long[][] cubes = getCubes();
+        Expression[] factored = factor(cubes);
+        StringBuilder printedAnswer = new StringBuilder();
+        for (int i = 0; i < factored.length; i++) {
+
+            if (factored.length == 1)
+                printedAnswer.append("Factored solution:").append("\n");
+            else
+                printedAnswer.append("Factored solution #").append(i+1).append(":").append("\n");
+
+            int literals = factored[i].getLiterals();
+            printedAnswer.append(factored[i].toString(variables)).append("\n");
+            printedAnswer.append("Literals: ").append(literals).append(" of ")
+                    .append(Factoring.literals(cubes[i], maxLength)).append("\n\n");
+        }
+        return printedAnswer.toString();
+    }
+
+    /**
+     * build a String for a single solution, so that displays can format solutions only when shown
+     * @param i the index of the solution
+     * @param variables list of variables that contains corresponding variable names
+     * @return the String of the expression of the solution
+     */
+    public String printSolution(int i, String[] variables) {
+        StringBuilder r = new StringBuilder();
+        appendSolution(r, i, variables);
+        return r.toString();
+    }
+
+    /**
+     * finds the solution whose String is the longest, counting the characters of its terms instead of
+     * building them, so that displays can size their rows without formatting every solution
+     * @param variables list of variables that contains corresponding variable names
+     * @return the index of the longest solution, 0 if there are none
+     */
+    public int getLongestSolution(String[] variables) {
+        int longest = 0;
+        int max = -1;
+        for (int i = 0; i < solution.length; i++) {
+            int length = 0;
+            for (String s : solution[i]) {
+                // a literal is its name with a prime if complemented, joined by " + " within a clause
+                int literals = 0;
+                for (int k = 0; k < s.length(); k++) {
+                    if (s.charAt(k) != '-') {
+                        literals++;
+                        length += variable(k, variables).length() + (s.charAt(k) == (productOfSums ? '1' : '0') ? 1 : 0);
+                    }
                 }
+                // a clause adds its parentheses, a product the " + " before the next one
+                length += productOfSums ? 3 * Math.max(0, literals - 1) + 2 : 3;
             }
+            if (length > max) {
+                max = length;
+                longest = i;
+            }
+        }
+        return longest;
+    }
 
-            // replace characters from converted standard form with their respective variable entered by the user
-            for (int j = 0; j < finalAnswer.toString().length(); j++){
-                if(finalAnswer.charAt(j) == 'A')
-                    printedAnswer.append(variables[0]);
-                else if (finalAnswer.charAt(j) == 'B')
-                    printedAnswer.append(variables[1]);
-                else if (finalAnswer.charAt(j) == 'C')
-                    printedAnswer.append(variables[2]);
-                else if (finalAnswer.charAt(j) == 'D')
-                    printedAnswer.append(variables[3]);
-                else if (finalAnswer.charAt(j) == 'E')
-                    printedAnswer.append(variables[4]);
-                else if (finalAnswer.charAt(j) == 'F')
-                    printedAnswer.append(variables[5]);
-                else if (finalAnswer.charAt(j) == 'G')
-                    printedAnswer.append(variables[6]);
-                else if (finalAnswer.charAt(j) == 'H')
-                    printedAnswer.append(variables[7]);
-                else if (finalAnswer.charAt(j) == 'I')
-                    printedAnswer.append(variables[8]);
-                else if (finalAnswer.charAt(j) == 'J')
-                    printedAnswer.append(variables[9]);
-                else
-                    printedAnswer.append(finalAnswer.toString().charAt(j));
+    /**
+     * appends the expression of a solution with the variables entered by the user
+     * @param r the StringBuilder receiving the expression
+     * @param i the index of the solution
+     * @param variables list of variables that contains corresponding variable names
+     */
+    private void appendSolution(StringBuilder r, int i, String[] variables) {
+        // write each term with the variables entered by the user, separate sum of products with '+' or juxtapose clauses
+        for (int j = 0; j < solution[i].size(); j++) {
+            if (productOfSums) {
+                appendClause(r, solution[i].get(j), variables);
+            } else {
+                appendProduct(r, solution[i].get(j), variables);
+                if (j != solution[i].size() - 1) {
+                    r.append(" + ");
+                }
             }
-            printedAnswer.append("\n\n");
         }
-        return printedAnswer.toString();
+
+        // an empty solution means the function is constant
+        if (solution[i].size() == 0) {
+            r.append(productOfSums ? "1" : "0");
+        }
     }
 }
@@ -0,0 +1,293 @@
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+
+/**
+ * The ResultWriter class writes the solutions of the QuineMcCluskey class as JSON, as a PLA file
+ * or in a compact binary format. Terms are written from their packed form straight into a byte
+ * buffer that is drained to a channel whenever it fills, so that no String is built per term.
+ */
+public class ResultWriter implements Flushable {
+
+    /**
+     * formats of the written solutions
+     */
+    public enum Format {
+        /** one JSON object per function followed by a new line */
+        JSON,
+        /** a PLA file per function, with one output per alternative solution */
+        PLA,
+        /** a binary record per function, with each term in as few bytes as its variables need */
+        BINARY
+    }
+
+    /**
+     * first bytes of every binary record, "QMC" followed by the version of the format
+     */
+    public static final int MAGIC = 0x514D4301;
+
+    /**
+     * default size of the buffer in bytes
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * channel receiving the written bytes
+     */
+    private final WritableByteChannel channel;
+
+    /**
+     * output stream under the channel, flushed with the writer, null if written to a channel
+     */
+    private final OutputStream out;
+
+    /**
+     * buffer of the bytes not yet written to the channel
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * constructor for a writer to a channel
+     * @param channel the channel receiving the written bytes
+     */
+    public ResultWriter(WritableByteChannel channel) {
+        this(channel, null);
+    }
+
+    /**
+     * constructor for a writer to an output stream
+     * @param out the output stream receiving the written bytes
+     */
+    public ResultWriter(OutputStream out) {
+        this(Channels.newChannel(out), out);
+    }
+
+    /**
+     * constructor for a writer to a channel over an optional output stream
+     * @param channel the channel receiving the written bytes
+     * @param out the output stream under the channel, null if there is none
+     */
+    private ResultWriter(WritableByteChannel channel, OutputStream out) {
+        this.channel = channel;
+        this.out = out;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    /**
+     * writes the solutions of a solved function in a format
+     * @param q the solved function
+     * @param format the format of the solutions
+     * @throws IOException if the channel cannot be written
+     */
+    public void write(QuineMcCluskey q, Format format) throws IOException {
+        long[][] cubes = q.getCubes();
+        int variables = q.getNumVariables();
+
+        if (format == Format.JSON)
+            writeJson(q, cubes, variables);
+        else if (format == Format.PLA)
+            writePla(q, cubes, variables);
+        else
+            writeBinary(q, cubes, variables);
+    }
+
+    /**
+     * writes the solutions as a JSON object followed by a new line
+     * @param q the solved function
+     * @param cubes the solutions as arrays of packed terms
+     * @param variables the number of variables of the function
+     * @throws IOException if the channel cannot be written
+     */
+    private void writeJson(QuineMcCluskey q, long[][] cubes, int variables) throws IOException {
+        ascii("{\"variables\":");
+        number(variables);
+        ascii(q.isProductOfSums() ? ",\"form\":\"POS\"" : ",\"form\":\"SOP\"");
+        ascii(q.isOptimal() ? ",\"optimal\":true" : ",\"optimal\":false");
+        ascii(",\"solutions\":[");
+        for (int i = 0; i < cubes.length; i++) {
+            if (i != 0)
+                put(',');
+            put('[');
+            for (int j = 0; j < cubes[i].length; j++) {
+                if (j != 0)
+                    put(',');
+                put('"');
+                cube(cubes[i][j], variables);
+                put('"');
+            }
+            put(']');
+        }
+        ascii("]}\n");
+    }
+
+    /**
+     * writes the solutions as a PLA file, where each distinct term is a row and each solution an
+     * output, and the terms of the off-set are marked as such with the type of the file
+     * @param q the solved function
+     * @param cubes the solutions as arrays of packed terms
+     * @param variables the number of variables of the function
+     * @throws IOException if the channel cannot be written
+     */
+    private void writePla(QuineMcCluskey q, long[][] cubes, int variables) throws IOException {
+        // gather the solutions each distinct term belongs to, in order of appearance
+        LinkedHashMap<Long, BitSet> rows = new LinkedHashMap<>();
+        for (int i = 0; i < cubes.length; i++) {
+            for (int j = 0; j < cubes[i].length; j++) {
+                rows.computeIfAbsent(cubes[i][j], c -> new BitSet()).set(i);
+            }
+        }
+
+        ascii(".i ");
+        number(variables);
+        ascii("\n.o ");
+        number(cubes.length);
+        ascii(q.isProductOfSums() ? "\n.type r\n.p " : "\n.type f\n.p ");
+        number(rows.size());
+        put('\n');
+        for (java.util.Map.Entry<Long, BitSet> row : rows.entrySet()) {
+            cube(row.getKey(), variables);
+            put(' ');
+            for (int i = 0; i < cubes.length; i++) {
+                put(row.getValue().get(i) ? '1' : '0');
+            }
+            put('\n');
+        }
+        ascii(".e\n");
+    }
+
+    /**
+     * writes the solutions as a binary record: the magic number, the number of variables, the form,
+     * the optimality and the number of solutions, then the number of terms of each solution followed
+     * by the value and the mask of each term, each in the fewest whole bytes holding every variable
+     * @param q the solved function
+     * @param cubes the solutions as arrays of packed terms
+     * @param variables the number of variables of the function
+     * @throws IOException if the channel cannot be written
+     */
+    private void writeBinary(QuineMcCluskey q, long[][] cubes, int variables) throws IOException {
+        int width = (variables + 7) / 8;
+
+        reserve(Integer.BYTES + 3 + Integer.BYTES);
+        buffer.putInt(MAGIC);
+        buffer.put((byte) variables);
+        buffer.put((byte) (q.isProductOfSums() ? 1 : 0));
+        buffer.put((byte) (q.isOptimal() ? 1 : 0));
+        buffer.putInt(cubes.length);
+
+        for (int i = 0; i < cubes.length; i++) {
+            reserve(Integer.BYTES);
+            buffer.putInt(cubes[i].length);
+            for (int j = 0; j < cubes[i].length; j++) {
+                reserve(2 * width);
+                bytes((int) cubes[i][j], width);
+                bytes((int) (cubes[i][j] >>> 32), width);
+            }
+        }
+    }
+
+    /**
+     * puts the lowest bytes of a value, most significant first
+     * @param value the value
+     * @param width the number of bytes
+     */
+    private void bytes(int value, int width) {
+        for (int b = width - 1; b >= 0; b--) {
+            buffer.put((byte) (value >>> (8 * b)));
+        }
+    }
+
+    /**
+     * puts a packed term in binary form, one character per variable
+     * @param cube the packed term
+     * @param variables the number of variables of the function
+     * @throws IOException if the channel cannot be written
+     */
+    private void cube(long cube, int variables) throws IOException {
+        reserve(variables);
+        int value = (int) cube;
+        int mask = (int) (cube >>> 32);
+        for (int b = variables - 1; b >= 0; b--) {
+            if ((mask >>> b & 1) == 1)
+                buffer.put((byte) '-');
+            else
+                buffer.put((byte) ('0' + (value >>> b & 1)));
+        }
+    }
+
+    /**
+     * puts a non-negative number in decimal form
+     * @param n the number
+     * @throws IOException if the channel cannot be written
+     */
+    private void number(int n) throws IOException {
+        // at most ten digits, put from the most significant
+        reserve(10);
+        int divisor = 1;
+        while (divisor <= n / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + n / divisor % 10));
+        }
+    }
+
+    /**
+     * puts a String of ASCII characters
+     * @param s the String
+     * @throws IOException if the channel cannot be written
+     */
+    private void ascii(String s) throws IOException {
+        reserve(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            buffer.put((byte) s.charAt(i));
+        }
+    }
+
+    /**
+     * puts an ASCII character
+     * @param c the character
+     * @throws IOException if the channel cannot be written
+     */
+    private void put(char c) throws IOException {
+        reserve(1);
+        buffer.put((byte) c);
+    }
+
+    /**
+     * drains the buffer to the channel if it cannot hold a number of bytes
+     * @param bytes the number of bytes about to be put, at most the size of the buffer
+     * @throws IOException if the channel cannot be written
+     */
+    private void reserve(int bytes) throws IOException {
+        if (buffer.remaining() < bytes)
+            drain();
+    }
+
+    /**
+     * writes every buffered byte to the channel
+     * @throws IOException if the channel cannot be written
+     */
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * writes every buffered byte to the channel, flushing the output stream if there is one
+     * @throws IOException if the channel cannot be written
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        if (out != null)
+            out.flush();
+    }
+}
@@ -0,0 +1,100 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.AbstractListModel;
+
+/**
+ * The SolutionListModel class provides the solutions of the QuineMcCluskey class to the list of
+ * the MainGUI class. Solutions are appended by index once the solver has found them and are only
+ * formatted with the variables once the list shows them, keeping the most recently shown ones, so
+ * that functions with thousands of minimum solutions never build their whole text at once.
+ */
+public class SolutionListModel extends AbstractListModel<String> {
+
+    /**
+     * version of the serialized form of the model
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * maximum number of formatted solutions kept
+     */
+    private static final int CACHE_SIZE = 256;
+
+    /**
+     * solver holding the solutions, null if the list is empty
+     */
+    private QuineMcCluskey solver;
+
+    /**
+     * names of the variables used to format the solutions
+     */
+    private String[] variables;
+
+    /**
+     * number of solutions appended so far
+     */
+    private int size;
+
+    /**
+     * formatted solutions by index, the least recently shown removed first
+     */
+    private final LinkedHashMap<Integer, String> cache = new LinkedHashMap<Integer, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * empties the list and prepares it for the solutions of a solver
+     * @param solver the solver whose solutions will be appended, null to leave the list empty
+     * @param variables the names of the variables used to format the solutions
+     */
+    public void reset(QuineMcCluskey solver, String[] variables) {
+        int removed = size;
+        this.solver = solver;
+        this.variables = variables;
+        this.size = 0;
+        cache.clear();
+        if (removed > 0)
+            fireIntervalRemoved(this, 0, removed - 1);
+    }
+
+    /**
+     * shows the solutions of the solver up to an index
+     * @param count the number of solutions delivered so far
+     */
+    public void append(int count) {
+        if (count <= size)
+            return;
+        int first = size;
+        size = count;
+        fireIntervalAdded(this, first, count - 1);
+    }
+
+    /**
+     * gets the number of solutions shown.
+     * @return the number of solutions appended so far
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * gets a solution, formatting it when it is first shown
+     * @param index the index of the solution
+     * @return the String of the solution with its number when there are several
+     */
+    @Override
+    public String getElementAt(int index) {
+        String s = cache.get(index);
+        if (s == null) {
+            s = solver.printSolution(index, variables);
+            if (solver.getNumSolutions() > 1)
+                s = "#" + (index + 1) + ": " + s;
+            cache.put(index, s);
+        }
+        return s;
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * The SolveStats class holds the statistics of the last solve of the QuineMcCluskey class: the time
+ * spent in each stage, the size of the prime implicant chart, and whether a budget cut the solve
+ * short so that its solutions are not proven minimum.
+ */
+public class SolveStats {
+
+    /**
+     * time spent by the whole solve in nanoseconds
+     */
+    long totalNanos;
+
+    /**
+     * time spent generating the implicants in nanoseconds
+     */
+    long primeNanos;
+
+    /**
+     * time spent choosing the covers in nanoseconds
+     */
+    long coverNanos;
+
+    /**
+     * time spent verifying the solutions in nanoseconds, also counted in the whole solve
+     */
+    long verifyNanos;
+
+    /**
+     * number of implicants in the chart of the covering stage
+     */
+    int implicants;
+
+    /**
+     * number of levels of the tabulation
+     */
+    int levels;
+
+    /**
+     * number of independent components of the chart left for the covering method
+     */
+    int components;
+
+    /**
+     * cost of the first cover of the chart left for the covering method, under the cost model
+     */
+    long coverCost;
+
+    /**
+     * lower bound on the cost of every cover of the chart left for the covering method
+     */
+    long lowerBound;
+
+    /**
+     * true if the tabulation stopped before every implicant became prime
+     */
+    boolean truncated;
+
+    /**
+     * true if the covering method fell back to a greedy cover
+     */
+    boolean degraded;
+
+    /**
+     * true if the stages of the solve ran out of time, which leaves the reserve of the deadline to the last cover
+     */
+    boolean timeUp;
+
+    /**
+     * true if the memory of the budget ran out during the solve
+     */
+    boolean memoryUp;
+
+    /**
+     * true if the solutions are proven to be of minimum cost
+     */
+    boolean optimal = true;
+
+    /**
+     * true if every solution was checked against the truth table of the function
+     */
+    boolean verified;
+
+    /**
+     * gets the time spent by the whole solve.
+     * @return the time in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * gets the time spent generating the implicants.
+     * @return the time in nanoseconds
+     */
+    public long getPrimeNanos() {
+        return primeNanos;
+    }
+
+    /**
+     * gets the time spent choosing the covers.
+     * @return the time in nanoseconds
+     */
+    public long getCoverNanos() {
+        return coverNanos;
+    }
+
+    /**
+     * gets the time spent verifying the solutions, which is also part of the whole solve.
+     * @return the time in nanoseconds, 0 if the solutions were not verified
+     */
+    public long getVerifyNanos() {
+        return verifyNanos;
+    }
+
+    /**
+     * gets the number of implicants in the chart of the covering stage.
+     * @return the number of implicants, which are all prime unless the tabulation was truncated
+     */
+    public int getImplicants() {
+        return implicants;
+    }
+
+    /**
+     * gets the number of levels of the tabulation.
+     * @return the number of levels, 0 if the implicants were not tabulated in memory
+     */
+    public int getLevels() {
+        return levels;
+    }
+
+    /**
+     * gets the number of independent components of the chart left for the covering method.
+     * @return the number of components, 0 if the reduction steps covered every minterm
+     */
+    public int getComponents() {
+        return components;
+    }
+
+    /**
+     * gets the cost of the first cover of the chart left for the covering method, which excludes
+     * the terms chosen before it, such as the essential prime implicants.
+     * @return the cost under the cost model of the solve, 0 if the reduction steps covered every minterm
+     */
+    public long getCoverCost() {
+        return coverCost;
+    }
+
+    /**
+     * gets the lower bound on the cost of every cover of the chart left for the covering method.
+     * @return the lower bound, equal to the cover cost when the cover is proven minimum
+     */
+    public long getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * gets the gap between the cost of the cover and its lower bound, relative to the lower bound.
+     * @return the gap, 0 when the cover meets the lower bound, or NaN when the bound is 0 and the
+     *         cover is not, which leaves the gap undefined
+     */
+    public double getGap() {
+        if (coverCost == lowerBound)
+            return 0;
+        if (lowerBound == 0)
+            return Double.NaN;
+        return (double) (coverCost - lowerBound) / lowerBound;
+    }
+
+    /**
+     * checks if the tabulation stopped before every implicant became prime.
+     * @return true if the budget truncated the tabulation, else false
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * checks if the covering method fell back to a greedy cover.
+     * @return true if the budget stopped the covering method, else false
+     */
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    /**
+     * checks if the deadline of the budget passed during the solve.
+     * @return true if the time ran out, else false
+     */
+    public boolean isTimeUp() {
+        return timeUp;
+    }
+
+    /**
+     * checks if the memory of the budget ran out during the solve.
+     * @return true if the memory ran out, else false
+     */
+    public boolean isMemoryUp() {
+        return memoryUp;
+    }
+
+    /**
+     * checks if the solutions are proven to be of minimum cost.
+     * @return true if the solutions are minimum, else false
+     */
+    public boolean isOptimal() {
+        return optimal;
+    }
+
+    /**
+     * checks if every solution was checked against the truth table of the function.
+     * @return true if the solutions were verified, else false
+     */
+    public boolean isVerified() {
+        return verified;
+    }
+
+    /**
+     * builds a one-line summary of the statistics
+     * @return the String of the statistics
+     */
+    @Override
+    public String toString() {
+        return "total " + totalNanos / 1000 + " us, primes " + primeNanos / 1000 + " us, cover "
+                + coverNanos / 1000 + " us, " + (verified ? "verify " + verifyNanos / 1000 + " us, " : "") + implicants + " implicants, " + levels + " levels, "
+                + components + " components, cost " + coverCost + ", bound " + lowerBound
+                + (truncated ? ", truncated" : "") + (degraded ? ", degraded" : "") + (timeUp ? ", time up" : "")
+                + (memoryUp ? ", memory up" : "") + (optimal ? ", optimal" : "");
+    }
+}
@@ -0,0 +1,84 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The StartupBenchmark class measures the wall time of one-off headless solves, each in a
+ * new JVM, with and without the class-data-sharing archive built for the Main entry point.
+ */
+public class StartupBenchmark {
+
+    /**
+     * minterms solved by every invocation
+     */
+    private static final String MINTERMS = "0 1 2 5 6 7 8 9 10 14";
+
+    /**
+     * @param args the path of the jar, the path of the archive and the number of invocations, the last optional
+     * @throws IOException if a JVM cannot be started
+     * @throws InterruptedException if interrupted while waiting for a JVM
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String jar = args[0];
+        String archive = args[1];
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+        ProcessBuilder plain = builder(java, "-Xshare:auto", "-cp", jar, "Main", MINTERMS);
+        ProcessBuilder shared = builder(java, "-XX:SharedArchiveFile=" + archive, "-cp", jar, "Main", MINTERMS);
+
+        // warm up the file system cache with one untimed invocation of each
+        run(plain);
+        run(shared);
+
+        // alternate both configurations so that noise affects them alike
+        long[] plainTimes = new long[runs];
+        long[] sharedTimes = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            plainTimes[i] = run(plain);
+            sharedTimes[i] = run(shared);
+        }
+        Arrays.sort(plainTimes);
+        Arrays.sort(sharedTimes);
+
+        print("default CDS", plainTimes);
+        print("application CDS", sharedTimes);
+    }
+
+    /**
+     * creates the builder of a command discarding its output
+     * @param command the command and its arguments
+     * @return the process builder of the command
+     */
+    private static ProcessBuilder builder(String... command) {
+        return new ProcessBuilder(command).redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT);
+    }
+
+    /**
+     * starts a command and waits for it to exit
+     * @param builder the process builder of the command
+     * @return the wall time of the invocation in microseconds
+     * @throws IOException if the command cannot be started or fails
+     * @throws InterruptedException if interrupted while waiting for the command
+     */
+    private static long run(ProcessBuilder builder) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        int exit = builder.start().waitFor();
+        long elapsed = (System.nanoTime() - start) / 1000;
+        if (exit != 0)
+            throw new IOException("Exit code " + exit + " from " + builder.command());
+        return elapsed;
+    }
+
+    /**
+     * prints the minimum, median and maximum wall time of the invocations
+     * @param name the name of the configuration
+     * @param times sorted array of the wall time of each invocation in microseconds
+     */
+    private static void print(String name, long[] times) {
+        System.out.printf("%-16s min %6.1f ms  median %6.1f ms  max %6.1f ms%n", name,
+                times[0] / 1000.0, times[times.length / 2] / 1000.0, times[times.length - 1] / 1000.0);
+    }
+}
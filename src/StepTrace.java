@@ -0,0 +1,163 @@
+import java.util.*;
+
+/**
+ * The StepTrace class records the tabulation of the QuineMcCluskey class for step by step displays
+ * without keeping every level of terms. Each merge of two terms is appended to a buffer of ints as the
+ * level, the group and the positions of both terms in their groups, and the levels and their checked
+ * terms are rebuilt from the grouped minterms by replaying the merges only when they are first
+ * requested. The merged position is left out since both terms give it.
+ */
+public class StepTrace {
+
+    /**
+     * number of ints recorded per merge: the level and group, then the positions of both terms
+     */
+    private static final int RECORD = 3;
+
+    /**
+     * grouped minterms of the first level
+     */
+    private final ArrayList<Term>[] first;
+
+    /**
+     * recorded merges, RECORD ints each
+     */
+    private int[] buffer = new int[RECORD * 64];
+
+    /**
+     * number of ints recorded in the buffer
+     */
+    private int size;
+
+    /**
+     * levels rebuilt by replaying the merges, null until first requested
+     */
+    private ArrayList<ArrayList<Term>[]> steps;
+
+    /**
+     * checked terms of each level rebuilt by replaying the merges, null until first requested
+     */
+    private ArrayList<HashSet<String>> checked;
+
+    /**
+     * constructor for the trace of a tabulation
+     * @param first the grouped minterms of the first level
+     */
+    public StepTrace(ArrayList<Term>[] first) {
+        this.first = first;
+    }
+
+    /**
+     * records the merge of two terms of adjacent groups
+     * @param level the level of both terms, the first level being 0
+     * @param group the group of the first term, the second term being in the next group
+     * @param j the position of the first term in its group
+     * @param k the position of the second term in the next group
+     */
+    void merge(int level, int group, int j, int k) {
+        if (size + RECORD > buffer.length)
+            buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+        buffer[size++] = level << 8 | group;
+        buffer[size++] = j;
+        buffer[size++] = k;
+    }
+
+    /**
+     * marks the end of the merges so far, such as before the merges of a level that may be dropped
+     * @return the mark to be passed to reset()
+     */
+    int mark() {
+        return size;
+    }
+
+    /**
+     * drops every merge recorded after a mark
+     * @param mark the mark returned by mark()
+     */
+    void reset(int mark) {
+        size = mark;
+    }
+
+    /**
+     * gets the number of recorded merges.
+     * @return the number of merges, including those producing a term already in its group
+     */
+    public int getMerges() {
+        return size / RECORD;
+    }
+
+    /**
+     * gets the memory taken by the recorded merges.
+     * @return the size of the buffer in bytes
+     */
+    public long getBytes() {
+        return (long) buffer.length * Integer.BYTES;
+    }
+
+    /**
+     * gets every level of grouped terms, rebuilding them when first requested
+     * @return array list of the grouped terms of each level
+     */
+    public synchronized ArrayList<ArrayList<Term>[]> getSteps() {
+        if (steps == null)
+            replay();
+        return steps;
+    }
+
+    /**
+     * gets the checked terms of each level but the last, rebuilding them when first requested
+     * @return array list of the binary forms of the terms merged in each level
+     */
+    public synchronized ArrayList<HashSet<String>> getChecked() {
+        if (checked == null)
+            replay();
+        return checked;
+    }
+
+    /**
+     * rebuilds the levels and their checked terms by replaying the merges in the order they were recorded
+     */
+    private void replay() {
+        steps = new ArrayList<>();
+        checked = new ArrayList<>();
+        steps.add(first);
+
+        ArrayList<Term>[] list = first;
+        ArrayList<Term>[] result = null;
+        HashSet<String> c = null;
+        HashSet<Term>[] temp = null;
+        int level = -1;
+        for (int i = 0; i < size; i += RECORD) {
+            int l = buffer[i] >>> 8;
+            int group = buffer[i] & 0xFF;
+            if (l != level) {
+                // the merges of a new level start from the terms of the previous one
+                if (result != null) {
+                    list = result;
+                    steps.add(list);
+                    checked.add(c);
+                }
+                level = l;
+                result = new ArrayList[list.length - 1];
+                temp = new HashSet[list.length - 1];
+                for (int g = 0; g < result.length; g++) {
+                    result[g] = new ArrayList<>();
+                    temp[g] = new HashSet<>();
+                }
+                c = new HashSet<>();
+            }
+
+            Term a = list[group].get(buffer[i + 1]);
+            Term b = list[group + 1].get(buffer[i + 2]);
+            c.add(a.getString());
+            c.add(b.getString());
+            Term n = new Term(a, b);
+            if (temp[group].add(n))
+                result[group].add(n);
+        }
+        if (result != null) {
+            steps.add(result);
+            checked.add(c);
+        }
+    }
+}
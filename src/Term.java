@@ -11,19 +11,29 @@ import java.util.*;
  */
 public class Term {
     /**
-     * String representation of a boolean function Term in binary form. 
+     * bits of the term's binary form, with zeroes in the positions of '-'
      */
-    private String term;
-    
+    private final int value;
+
     /**
-     * number of ones in the current binary form of Term
+     * bits set in the positions of '-' in the term's binary form
+     */
+    private final int mask;
+
+    /**
+     * length of the term's binary form
+     */
+    private final int length;
+
+    /**
+     * String representation of a boolean function Term in binary form, built when first requested.
      */
-    private int ones;
+    private String term;
     
     /**
-     * grouped numbers in the representation of the Term
+     * number of ones in the current binary form of Term
      */
-    private ArrayList<Integer> nums;
+    private final int ones;
     
     /**
      * constructor for the initialization of new term from integer minterm value
@@ -32,26 +42,20 @@ public class Term {
      * 
      */
     public Term (int value, int length){
-        //convert minterm to binary String
-        String binary = Integer.toBinaryString(value);
-        
-        // left-pads zeroes if binary String does not match desired length from max minterm
-        StringBuffer temp = new StringBuffer(binary);
-        while (temp.length() != length){
-            temp.insert(0, 0);
-        }
-        this.term = temp.toString();
-
-        // initialize array list for the minterm value for groupings later on
-        nums = new ArrayList<Integer>();
-        nums.add(value);
+        this(value, 0, length);
+    }
 
-        // count number of ones in binary
-        ones = 0;
-        for (int i = 0; i < term.length(); i++){
-            if(term.charAt(i) == '1')
-                ones++;
-        }
+    /**
+     * constructor for the initialization of a term from its packed binary form
+     * @param value the bits of the binary form, with zeroes in the positions of '-'
+     * @param mask the bits set in the positions of '-'
+     * @param length the length of the binary form
+     */
+    public Term (int value, int mask, int length){
+        this.value = value;
+        this.mask = mask;
+        this.length = length;
+        this.ones = Integer.bitCount(value);
     }
 
     /**
@@ -61,31 +65,49 @@ public class Term {
      *
      */
     public Term (Term term1, Term term2){
-        // scans both terms and replace non-matching character to '-'
-        StringBuffer temp = new StringBuffer();
-        for (int i = 0; i < term1.getString().length(); i++){
-            if (term1.getString().charAt(i) != term2.getString().charAt(i))
-                temp.append("-");
-            else
-                temp.append(term1.getString().charAt(i));
-        }
-        this.term = temp.toString();
+        // the differing position becomes '-', which is kept as a zero in the value
+        this.value = term1.value & term2.value;
+        this.mask = term1.mask | (term1.value ^ term2.value);
+        this.length = term1.length;
+        this.ones = Integer.bitCount(value);
+    }
 
-        // count new number of ones
-        ones = 0;
-        for (int i = 0; i < term.length(); i++){
-            if (this.term.charAt(i) == '1') 
-                ones++;
-        }
+    /**
+     * packs a term into a long holding its mask in the upper half and its value in the lower half,
+     * so that packed terms sort by mask then value
+     * @param value the bits of the binary form, with zeroes in the positions of '-'
+     * @param mask the bits set in the positions of '-'
+     * @return the packed term
+     */
+    public static long pack(int value, int mask) {
+        return ((long) mask << 32) | (value & 0xFFFFFFFFL);
+    }
 
-        // adds both int minterms to the nums array list
-        nums = new ArrayList<Integer>();
-        for (int i = 0; i < term1.getNums().size(); i++){
-            nums.add(term1.getNums().get(i));
-        }
-        for (int i = 0; i < term2.getNums().size(); i++){
-            nums.add(term2.getNums().get(i));
+    /**
+     * packs a term in binary form into a long
+     * @param term the term in binary form
+     * @return the packed term
+     */
+    public static long pack(String term) {
+        int value = 0;
+        int mask = 0;
+        for (int i = 0; i < term.length(); i++) {
+            value <<= 1;
+            mask <<= 1;
+            if (term.charAt(i) == '1')
+                value |= 1;
+            else if (term.charAt(i) == '-')
+                mask |= 1;
         }
+        return pack(value, mask);
+    }
+
+    /**
+     * gets the term packed into a long
+     * @return the packed term
+     */
+    public long getPacked() {
+        return pack(value, mask);
     }
 
     /**
@@ -93,16 +115,81 @@ public class Term {
      * @return String of term's current binary value
      */
     String getString() {
-        return term;
+        // build the String once, concurrent callers would only build an equal String
+        String s = term;
+        if (s == null) {
+            char[] c = new char[length];
+            for (int i = 0; i < length; i++) {
+                int bit = 1 << (length - 1 - i);
+                if ((mask & bit) != 0)
+                    c[i] = '-';
+                else if ((value & bit) != 0)
+                    c[i] = '1';
+                else
+                    c[i] = '0';
+            }
+            s = new String(c);
+            term = s;
+        }
+        return s;
+    }
+
+    /**
+     * gets the bits of the term's binary form, with zeroes in the positions of '-'.
+     * @return integer value of the term's bits
+     */
+    int getValue() {
+        return value;
+    }
+
+    /**
+     * gets the bits set in the positions of '-' in the term's binary form.
+     * @return integer mask of the term's '-' positions
+     */
+    int getMask() {
+        return mask;
+    }
+
+    /**
+     * gets the length of the term's binary form.
+     * @return integer value of the number of variables of the term
+     */
+    int getLength() {
+        return length;
     }
     
     /**
      * gets the list of integer minterms grouped to create the term.
-     * @return ArrayList containing current grouped minterms of term
+     * @return ArrayList containing current grouped minterms of term in ascending order
      */
     ArrayList<Integer> getNums(){
+        // enumerate every subset of the '-' positions
+        ArrayList<Integer> nums = new ArrayList<Integer>(1 << Integer.bitCount(mask));
+        int sub = 0;
+        do {
+            nums.add(value | sub);
+            sub = (sub - mask) & mask;
+        } while (sub != 0);
         return nums;
     }
+
+    /**
+     * checks if a minterm is one of the grouped numbers of the term.
+     * @param minterm the integer value of the minterm
+     * @return true if the term covers the minterm, else false
+     */
+    boolean covers(int minterm){
+        return (minterm & ~mask) == value;
+    }
+
+    /**
+     * checks if every number grouped in another term is grouped in this term.
+     * @param other the term to be checked
+     * @return true if the term covers every minterm of the other term, else false
+     */
+    boolean covers(Term other){
+        return (other.mask & ~mask) == 0 && (other.value & ~mask) == value;
+    }
     
     /**
      * gets the number of ones present in the term's binary form.
@@ -111,4 +198,34 @@ public class Term {
     int getNumOnes(){
         return ones;
     }
+
+    /**
+     * gets the number of literals present in the term, that is the number of characters that are not '-'.
+     * @return integer value of counted literals in term
+     */
+    int getNumLiterals(){
+        return length - Integer.bitCount(mask);
+    }
+
+    /**
+     * checks if two terms have the same binary form.
+     * @param o the object to be compared
+     * @return true if o is a term with the same binary form, else false
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Term))
+            return false;
+        Term t = (Term) o;
+        return value == t.value && mask == t.mask && length == t.length;
+    }
+
+    /**
+     * computes the hash code from the term's binary form.
+     * @return hash code of the term
+     */
+    @Override
+    public int hashCode() {
+        return (value * 31 + mask) * 31 + length;
+    }
 }
@@ -0,0 +1,58 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The VectorMergeKernel class provides the merge test of the tabulation with the Vector API, testing
+ * a term against as many terms of the next group as fit in a vector of the preferred width of the
+ * processor. Since the API of this release has no lane-wise bit count, a single differing position
+ * is tested as x != 0 and (x &amp; (x - 1)) == 0. The class needs the jdk.incubator.vector module both
+ * to compile and to run, so the build compiles it in a javac step of its own with the module, and it
+ * is only loaded reflectively by MergeKernel.best().
+ */
+class VectorMergeKernel implements MergeKernel {
+
+    /**
+     * species of int vectors of the preferred width of the processor
+     */
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * finds the terms of a group that merge with a term, a vector of terms at a time
+     * @param value the bits of the term, with zeroes in the positions of '-'
+     * @param mask the bits set in the positions of '-' of the term
+     * @param values array of the values of the terms of the group
+     * @param masks array of the masks of the terms of the group
+     * @param count the number of terms of the group
+     * @param matches array receiving the positions of the merging terms, holding at least count ints
+     * @return the number of merging terms, whose positions fill the start of matches in ascending order
+     */
+    @Override
+    public int match(int value, int mask, int[] values, int[] masks, int count, int[] matches) {
+        int n = 0;
+        int k = 0;
+        for (int bound = SPECIES.loopBound(count); k < bound; k += SPECIES.length()) {
+            IntVector x = IntVector.fromArray(SPECIES, values, k).lanewise(VectorOperators.XOR, value);
+            VectorMask<Integer> merge = IntVector.fromArray(SPECIES, masks, k).eq(mask)
+                    .and(x.compare(VectorOperators.NE, 0))
+                    .and(x.and(x.sub(1)).compare(VectorOperators.EQ, 0));
+
+            // most vectors hold no merging term, so only the lanes of the others are listed
+            if (merge.anyTrue()) {
+                for (int l = 0; l < SPECIES.length(); l++) {
+                    if (merge.laneIsSet(l))
+                        matches[n++] = k + l;
+                }
+            }
+        }
+
+        // the terms left over a whole vector are compared one at a time
+        for (; k < count; k++) {
+            int x = value ^ values[k];
+            if (masks[k] == mask && x != 0 && (x & (x - 1)) == 0)
+                matches[n++] = k;
+        }
+        return n;
+    }
+}